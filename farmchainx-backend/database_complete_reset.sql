@@ -142,14 +142,81 @@ CREATE TABLE crop_history (
 CREATE TABLE notifications (
     id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT NOT NULL,
-    title VARCHAR(255) NOT NULL,
-    message TEXT NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
     type VARCHAR(50) NOT NULL,
+    message TEXT NOT NULL,
+    priority VARCHAR(16) NOT NULL,
     is_read BOOLEAN NOT NULL DEFAULT FALSE,
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at DATETIME(6) NOT NULL,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- ===== TABLE: notification_read_state =====
+CREATE TABLE notification_read_state (
+    user_email VARCHAR(255) NOT NULL PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    read_all_before DATETIME(6),
+    broadcasts_read_before DATETIME(6)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===== TABLE: broadcast_notifications =====
+CREATE TABLE broadcast_notifications (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    target_role VARCHAR(20),
+    message TEXT NOT NULL,
+    priority VARCHAR(16) NOT NULL,
+    materialized BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at DATETIME(6) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===== TABLE: user_order_counters =====
+CREATE TABLE user_order_counters (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    counter_key VARCHAR(32) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    amount DOUBLE NOT NULL DEFAULT 0,
+    CONSTRAINT uk_user_order_counters_user_key UNIQUE (user_id, counter_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===== TABLE: seller_customers =====
+CREATE TABLE seller_customers (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    seller_id BIGINT NOT NULL,
+    buyer_id BIGINT NOT NULL,
+    CONSTRAINT uk_seller_customers_pair UNIQUE (seller_id, buyer_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===== TABLE: analytics_rollups =====
+CREATE TABLE analytics_rollups (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    region VARCHAR(255) NOT NULL,
+    crop_name VARCHAR(255) NOT NULL,
+    crops_created BIGINT NOT NULL DEFAULT 0,
+    crops_listed BIGINT NOT NULL DEFAULT 0,
+    orders_placed BIGINT NOT NULL DEFAULT 0,
+    orders_completed BIGINT NOT NULL DEFAULT 0,
+    users_registered BIGINT NOT NULL DEFAULT 0,
+    order_value DOUBLE NOT NULL DEFAULT 0,
+    disputes_raised BIGINT NOT NULL DEFAULT 0,
+    disputes_resolved BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_rollups_bucket UNIQUE (granularity, bucket_start, region, crop_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ===== TABLE: analytics_sketches =====
+CREATE TABLE analytics_sketches (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    day DATE NOT NULL,
+    region VARCHAR(255) NOT NULL,
+    crop_name VARCHAR(255) NOT NULL,
+    metric VARCHAR(16) NOT NULL,
+    sketch MEDIUMBLOB NOT NULL,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_sketches_bucket UNIQUE (day, region, crop_name, metric)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- ===== TABLE: blockchain_records =====
 CREATE TABLE blockchain_records (
     id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
@@ -180,13 +247,21 @@ CREATE INDEX idx_users_status ON users(status);
 CREATE INDEX idx_crops_state ON crops(crop_state);
 CREATE INDEX idx_crops_owner ON crops(current_owner_id);
 CREATE INDEX idx_crops_hash ON crops(blockchain_hash);
+CREATE INDEX idx_crops_state_created_id ON crops(crop_state, created_at, id);
+CREATE INDEX idx_crops_created_id ON crops(created_at, id);
+CREATE INDEX idx_crops_name ON crops(crop_name);
+CREATE INDEX idx_crops_location ON crops(location);
 
 CREATE INDEX idx_orders_state ON orders(order_state);
 CREATE INDEX idx_orders_buyer ON orders(buyer_id);
 CREATE INDEX idx_orders_seller ON orders(seller_id);
+CREATE INDEX idx_orders_buyer_created ON orders(buyer_id, created_at);
+CREATE INDEX idx_orders_seller_created ON orders(seller_id, created_at);
 
 CREATE INDEX idx_notifications_user ON notifications(user_id);
-CREATE INDEX idx_notifications_read ON notifications(is_read);
+CREATE INDEX idx_notifications_email_read_created ON notifications(user_email, is_read, created_at);
+CREATE INDEX idx_notifications_email_created ON notifications(user_email, created_at);
+CREATE INDEX idx_broadcasts_role_created ON broadcast_notifications(target_role, created_at);
 
 -- ===== SAMPLE / DEV SEEDS (optional) =====
 -- NOTE: For security, prefer creating users via the /api/auth/register endpoint, which encodes the password properly.
@@ -0,0 +1,130 @@
+package com.farmchainx.backend.common.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Small bounded in-memory cache with per-entry expiry.
+ * Reads are lock-free; when the cache is full, expired entries are swept
+ * first and the oldest entries are dropped after that.
+ */
+public class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long defaultTtlMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ExpiringCache(int maxSize, long defaultTtlMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.defaultTtlMillis = defaultTtlMillis;
+    }
+
+    /**
+     * Returns the cached value, or null when absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + defaultTtlMillis);
+    }
+
+    /**
+     * Stores a value that expires at the given epoch millis,
+     * capped by the default TTL
+     */
+    public void put(K key, V value, long expiresAt) {
+        long now = System.currentTimeMillis();
+        long cappedExpiry = Math.min(expiresAt, now + defaultTtlMillis);
+        if (cappedExpiry <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict(now);
+        }
+        entries.put(key, new Entry<>(value, cappedExpiry, now));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<V> predicate) {
+        entries.values().removeIf(entry -> predicate.test(entry.value));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private synchronized void evict(long now) {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+
+        // Still full: drop roughly the oldest tenth so we don't evict on every put
+        int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (excess <= 0) {
+            return;
+        }
+        long cutoff = entries.values().stream()
+                .mapToLong(entry -> entry.createdAt)
+                .sorted()
+                .skip(Math.min(excess, entries.size()) - 1L)
+                .findFirst()
+                .orElse(now);
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext() && excess > 0) {
+            if (it.next().createdAt <= cutoff) {
+                it.remove();
+                excess--;
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private final long createdAt;
+
+        private Entry(V value, long expiresAt, long createdAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.farmchainx.backend.common.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a keyset (seek) paginated listing.
+ * Pass nextCreatedAt/nextId back as the cursor to fetch the following page.
+ */
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final boolean hasMore;
+    private final LocalDateTime nextCreatedAt;
+    private final Long nextId;
+
+    public KeysetPage(List<T> items, boolean hasMore, LocalDateTime nextCreatedAt, Long nextId) {
+        this.items = items;
+        this.hasMore = hasMore;
+        this.nextCreatedAt = nextCreatedAt;
+        this.nextId = nextId;
+    }
+
+    public List<T> getItems() { return items; }
+    public boolean isHasMore() { return hasMore; }
+    public LocalDateTime getNextCreatedAt() { return nextCreatedAt; }
+    public Long getNextId() { return nextId; }
+}
@@ -0,0 +1,11 @@
+package com.farmchainx.backend.common.exception;
+
+/**
+ * Login queue is full - caller should retry later (HTTP 429)
+ */
+public class LoginThrottledException extends FarmChainException {
+
+    public LoginThrottledException(String message) {
+        super(message, "LOGIN_THROTTLED");
+    }
+}
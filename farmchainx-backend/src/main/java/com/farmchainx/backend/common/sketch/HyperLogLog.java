@@ -0,0 +1,82 @@
+package com.farmchainx.backend.common.sketch;
+
+/**
+ * HyperLogLog distinct counter over long ids.
+ * 2^11 one-byte registers (2 KB, about 2.3% standard error); two sketches
+ * merge by taking the register-wise maximum, so per-bucket sketches can be
+ * combined into any range without rescanning. Not thread-safe.
+ */
+public class HyperLogLog {
+
+    private static final int P = 11;
+    private static final int M = 1 << P;
+    private static final byte VERSION = 1;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[M];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public void add(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - P));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << P), 64 - P) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < M; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / M);
+        double estimate = alpha * M * M / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * M && zeros > 0) {
+            estimate = M * Math.log((double) M / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        byte[] out = new byte[M + 1];
+        out[0] = VERSION;
+        System.arraycopy(registers, 0, out, 1, M);
+        return out;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != M + 1 || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not a serialized HyperLogLog");
+        }
+        byte[] registers = new byte[M];
+        System.arraycopy(bytes, 1, registers, 0, M);
+        return new HyperLogLog(registers);
+    }
+
+    // SplitMix64 finalizer: sequential ids need a well-spread hash
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
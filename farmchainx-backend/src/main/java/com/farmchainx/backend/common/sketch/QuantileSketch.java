@@ -0,0 +1,126 @@
+package com.farmchainx.backend.common.sketch;
+
+import java.io.*;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable quantile sketch for non-negative values (prices, quantities).
+ *
+ * Values are counted in logarithmic bins of ratio GAMMA, so every quantile
+ * is returned within 1% relative error regardless of the distribution
+ * (the DDSketch scheme). Merging adds bin counts, which is exact, so
+ * per-bucket sketches combine into any range. Not thread-safe.
+ */
+public class QuantileSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final byte VERSION = 1;
+
+    private final TreeMap<Integer, Long> bins = new TreeMap<>();
+    private long zeroCount;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public void add(double value) {
+        if (Double.isNaN(value) || value < 0) {
+            return;
+        }
+        if (value == 0) {
+            zeroCount++;
+        } else {
+            bins.merge((int) Math.ceil(Math.log(value) / LOG_GAMMA), 1L, Long::sum);
+        }
+        count++;
+        min = Double.isNaN(min) ? value : Math.min(min, value);
+        max = Double.isNaN(max) ? value : Math.max(max, value);
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        other.bins.forEach((index, n) -> bins.merge(index, n, Long::sum));
+        zeroCount += other.zeroCount;
+        count += other.count;
+        min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+    }
+
+    /**
+     * Value at quantile q in [0, 1]; NaN when empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0.0;
+        }
+        long seen = zeroCount;
+        for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+            seen += bin.getValue();
+            if (seen > rank) {
+                double value = 2 * Math.pow(GAMMA, bin.getKey()) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() { return count; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(32 + bins.size() * 12);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeByte(VERSION);
+            out.writeLong(zeroCount);
+            out.writeLong(count);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            out.writeInt(bins.size());
+            for (Map.Entry<Integer, Long> bin : bins.entrySet()) {
+                out.writeInt(bin.getKey());
+                out.writeLong(bin.getValue());
+            }
+            out.flush();
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Not a serialized QuantileSketch");
+            }
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.zeroCount = in.readLong();
+            sketch.count = in.readLong();
+            sketch.min = in.readDouble();
+            sketch.max = in.readDouble();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.bins.put(in.readInt(), in.readLong());
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not a serialized QuantileSketch", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.farmchainx.backend.common.tx;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Orders the incremental updates of a derived table against its rebuilds.
+ *
+ * An update is applied after the change it describes has committed. Between
+ * that commit and the update, a rebuild could read the change from the source
+ * table and the update would then count it a second time. The update holds the
+ * shared lock from just before the commit until it has been applied, and each
+ * rebuild step holds the exclusive lock, so every change is either complete in
+ * the derived table when a step reads, or committed after the step.
+ *
+ * A committing writer waits here while holding its row locks, so rebuild
+ * steps must read the source tables without locking them (READ COMMITTED).
+ */
+public class RebuildGate {
+
+    private static final Logger logger = LoggerFactory.getLogger(RebuildGate.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Runs the update once the current transaction commits; right away when
+     * there is none. Failures are logged and left to the next rebuild.
+     */
+    public void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.readLock().lock();
+            try {
+                apply(update);
+            } finally {
+                lock.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean held;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.readLock().lock();
+                held = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (held) {
+                    held = false;
+                    lock.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs one rebuild step with no update in flight
+     */
+    public <T> T exclusive(Supplier<T> step) {
+        lock.writeLock().lock();
+        try {
+            return step.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Runnable update) {
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            logger.error("Incremental update failed; the next rebuild will correct it", e);
+        }
+    }
+}
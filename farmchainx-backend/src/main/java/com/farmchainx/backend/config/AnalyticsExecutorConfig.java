@@ -0,0 +1,49 @@
+package com.farmchainx.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool the analytics queries fan out on.
+ * Sized well below the connection pool so dashboards can't starve regular
+ * requests; when it is saturated further queries are rejected and reported
+ * as missing sections rather than run on the request thread.
+ */
+@Configuration
+public class AnalyticsExecutorConfig {
+
+    @Bean(name = "analyticsExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor analyticsExecutor(
+            @Value("${analytics.query.threads:6}") int threads,
+            @Value("${analytics.query.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "analytics-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("analytics.query.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -1,11 +1,13 @@
 package com.farmchainx.backend.config;
 
 import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,11 +26,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry revocationRegistry;
+
+    // Claims-trusted mode: build the SecurityContext from the signed role
+    // claim instead of the users table (revocation via TokenRevocationRegistry)
+    private final boolean claimsTrusted;
 
     public JwtAuthenticationFilter(JwtUtil jwtUtil,
-                                   UserRepository userRepository) {
+                                   UserRepository userRepository,
+                                   PrincipalCache principalCache,
+                                   TokenRevocationRegistry revocationRegistry,
+                                   @Value("${jwt.claims-trusted:false}") boolean claimsTrusted) {
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.revocationRegistry = revocationRegistry;
+        this.claimsTrusted = claimsTrusted;
     }
 
     @Override
@@ -41,7 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (path != null && (
                 path.equals("/api/health") ||
                         path.equals("/health") ||
-                        path.startsWith("/actuator/")
+                        (path.startsWith("/actuator/") && !path.startsWith("/actuator/metrics"))
         )) return true;
 
         return false;
@@ -70,16 +84,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
             try {
-                if (jwtUtil.isTokenValid(token)) {
-                    String email = jwtUtil.extractEmail(token);
-                    User user = userRepository.findByEmail(email).orElse(null);
-
-                    if (user != null) {
+                // Single signature check per request (cached for recently seen tokens)
+                VerifiedToken verified = jwtUtil.parseVerifiedToken(token);
+                if (verified != null) {
+                    String email = verified.getEmail();
+                    long issuedAt = verified.getIssuedAtMillis();
+                    Role role = resolveRole(verified, email, issuedAt);
+
+                    if (role != null) {
                         var auth = new UsernamePasswordAuthenticationToken(
-                                user.getEmail(),
+                                email,
                                 null,
                                 List.of(new SimpleGrantedAuthority(
-                                        "ROLE_" + user.getRole().name()
+                                        "ROLE_" + role.name()
                                 ))
                         );
                         SecurityContextHolder.getContext().setAuthentication(auth);
@@ -91,4 +108,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Role resolveRole(VerifiedToken verified, String email, long issuedAt) {
+        if (claimsTrusted && !revocationRegistry.isRevoked(email, issuedAt)) {
+            Role role = verified.getRole();
+            if (role != null) {
+                return role;
+            }
+        }
+        // Revoked (claims may be stale) or DB-backed mode: use current user data
+        PrincipalCache.CachedPrincipal principal = loadPrincipal(email, issuedAt);
+        return principal != null ? principal.getRole() : null;
+    }
+
+    private PrincipalCache.CachedPrincipal loadPrincipal(String email, long issuedAt) {
+        PrincipalCache.CachedPrincipal cached = principalCache.get(email, issuedAt);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = principalCache.generation();
+        User user = userRepository.findByEmail(email).orElse(null);
+        return user != null ? principalCache.put(email, issuedAt, user, generation) : null;
+    }
+
 }
@@ -1,12 +1,18 @@
 package com.farmchainx.backend.config;
 
+import com.farmchainx.backend.common.cache.ExpiringCache;
 import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.enums.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 
 @Component
@@ -15,12 +21,31 @@ public class JwtUtil {
     private final Key key;
     private final long expirationMillis;
 
+    // Immutable and thread-safe, so build it once
+    private final JwtParser parser;
+
+    // SHA-256(token) -> verified token, each entry expires with its token
+    private final ExpiringCache<String, VerifiedToken> verifiedTokens;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     public JwtUtil(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration}") long expirationMillis
+            @Value("${jwt.expiration}") long expirationMillis,
+            @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheSize
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMillis = expirationMillis;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verifiedTokens = new ExpiringCache<>(verifiedCacheSize, expirationMillis);
     }
 
     /**
@@ -41,33 +66,80 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verify signature & expiration once and return the token's subject,
+     * role and timestamps, or null if the token is invalid.
+     * Recently verified tokens are served from cache until they expire.
+     */
+    public VerifiedToken parseVerifiedToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Claims claims = extractClaims(token);
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), roleOf(claims),
+                    issuedAt != null ? issuedAt.getTime() : 0L,
+                    expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+            if (expiration != null) {
+                verifiedTokens.put(digest, verified, expiration.getTime());
+            }
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Extract email (subject)
      */
     public String extractEmail(String token) {
-        return extractClaims(token).getSubject();
+        VerifiedToken verified = parseVerifiedToken(token);
+        if (verified == null) {
+            throw new JwtException("Invalid token");
+        }
+        return verified.getEmail();
     }
 
     /**
      * Validate token signature & expiration
      */
     public boolean isTokenValid(String token) {
-        try {
-            extractClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseVerifiedToken(token) != null;
+    }
+
+    public long getVerifiedCacheHits() {
+        return verifiedTokens.getHits();
+    }
+
+    public long getVerifiedCacheMisses() {
+        return verifiedTokens.getMisses();
     }
 
     /**
      * Internal: parse claims
      */
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static Role roleOf(Claims claims) {
+        String role = claims.get("role", String.class);
+        try {
+            return role != null ? Role.valueOf(role) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
     }
 }
@@ -0,0 +1,50 @@
+package com.farmchainx.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, bounded pool for BCrypt credential checks.
+ * Keeps login storms from occupying every Tomcat worker; when the queue
+ * is full submissions are rejected and the login endpoint answers 429.
+ */
+@Configuration
+public class LoginExecutorConfig {
+
+    @Bean(name = "loginExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor loginExecutor(
+            @Value("${auth.login.threads:4}") int threads,
+            @Value("${auth.login.queue-capacity:200}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "login-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("auth.login.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+}
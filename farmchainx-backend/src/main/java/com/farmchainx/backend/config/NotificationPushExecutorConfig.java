@@ -0,0 +1,46 @@
+package com.farmchainx.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small pool that writes queued events to push connections.
+ * Idle connections hold no thread; each connection has at most one drain
+ * task queued here, so the work queue is bounded by the connection count.
+ */
+@Configuration
+public class NotificationPushExecutorConfig {
+
+    @Bean(name = "notificationPushExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor notificationPushExecutor(
+            @Value("${notifications.push.threads:4}") int threads,
+            MeterRegistry meterRegistry
+    ) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "notification-push-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                threadFactory
+        );
+
+        Gauge.builder("notifications.push.pending", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,108 @@
+package com.farmchainx.backend.config;
+
+import com.farmchainx.backend.common.cache.ExpiringCache;
+import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.enums.Status;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the user data the JWT filter needs to build an Authentication,
+ * so authenticated requests don't hit the users table every time.
+ * Entries are keyed by token subject + issued-at and dropped when an
+ * admin changes the user's status.
+ *
+ * Every invalidation bumps a generation. A loader reads the generation
+ * before it reads the user; if an invalidation happened meanwhile, its
+ * (possibly stale) entry is dropped again instead of living for the TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringCache<String, CachedPrincipal> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(
+            @Value("${jwt.principal-cache.max-size:10000}") int maxSize,
+            @Value("${jwt.principal-cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = new ExpiringCache<>(maxSize, ttlSeconds * 1000);
+
+        FunctionCounter.builder("auth.principal.cache", cache, ExpiringCache::getHits)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.principal.cache", cache, ExpiringCache::getMisses)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", cache, ExpiringCache::size)
+                .register(meterRegistry);
+    }
+
+    public CachedPrincipal get(String email, long issuedAtMillis) {
+        return cache.get(key(email, issuedAtMillis));
+    }
+
+    /**
+     * Read before loading the user that is passed to put
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches the user loaded after generation() returned loadedAtGeneration
+     */
+    public CachedPrincipal put(String email, long issuedAtMillis, User user, long loadedAtGeneration) {
+        CachedPrincipal principal = new CachedPrincipal(user.getEmail(), user.getRole(), user.getStatus());
+        String key = key(email, issuedAtMillis);
+        cache.put(key, principal);
+        // An invalidation after this check also removes the entry just put
+        if (generation.get() != loadedAtGeneration) {
+            cache.invalidate(key);
+        }
+        return principal;
+    }
+
+    /**
+     * Drop every cached token of this user (role/status changed)
+     */
+    public void invalidate(String email) {
+        generation.incrementAndGet();
+        cache.invalidateIf(p -> p.getEmail().equals(email));
+    }
+
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    private String key(String email, long issuedAtMillis) {
+        return email + '|' + issuedAtMillis;
+    }
+
+    public static class CachedPrincipal {
+        private final String email;
+        private final Role role;
+        private final Status status;
+
+        public CachedPrincipal(String email, Role role, Status status) {
+            this.email = email;
+            this.role = role;
+            this.status = status;
+        }
+
+        public String getEmail() { return email; }
+        public Role getRole() { return role; }
+        public Status getStatus() { return status; }
+    }
+}
@@ -0,0 +1,51 @@
+package com.farmchainx.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation list for claims-trusted JWT mode.
+ * Instead of tracking individual tokens we keep one "not before" watermark
+ * per user: every token issued before it must not be trusted anymore.
+ * Watermarks older than the token lifetime are useless and get purged.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final Map<String, Long> notBefore = new ConcurrentHashMap<>();
+    private final long tokenLifetimeMillis;
+
+    public TokenRevocationRegistry(@Value("${jwt.expiration}") long tokenLifetimeMillis) {
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    /**
+     * Revoke all tokens of this user issued up to now
+     */
+    public void revokeAll(String email) {
+        long now = System.currentTimeMillis();
+        notBefore.merge(email, now, Math::max);
+        purgeExpired(now);
+    }
+
+    /**
+     * JWT issued-at has second precision, so a token issued in the same
+     * second as the revocation is treated as revoked too (safe side).
+     */
+    public boolean isRevoked(String email, long issuedAtMillis) {
+        Long watermark = notBefore.get(email);
+        return watermark != null && issuedAtMillis <= watermark;
+    }
+
+    public int size() {
+        return notBefore.size();
+    }
+
+    private void purgeExpired(long now) {
+        long oldestLiveToken = now - tokenLifetimeMillis;
+        notBefore.values().removeIf(watermark -> watermark < oldestLiveToken);
+    }
+}
@@ -0,0 +1,36 @@
+package com.farmchainx.backend.config;
+
+import com.farmchainx.backend.enums.Role;
+
+/**
+ * The parts of a verified JWT that request handling reads. Immutable,
+ * so one cached instance can be handed to every request using the token.
+ */
+public class VerifiedToken {
+
+    private final String email;
+    private final Role role;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String email, Role role, long issuedAtMillis, long expiresAtMillis) {
+        this.email = email;
+        this.role = role;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getEmail() { return email; }
+
+    /**
+     * Role claim (null if absent or unknown)
+     */
+    public Role getRole() { return role; }
+
+    /**
+     * Issued-at as epoch millis (0 if absent)
+     */
+    public long getIssuedAtMillis() { return issuedAtMillis; }
+
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+}
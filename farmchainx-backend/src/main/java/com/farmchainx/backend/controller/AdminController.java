@@ -2,16 +2,23 @@ package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.common.dto.ApiResponse;
 import com.farmchainx.backend.dto.UserDto;
+import com.farmchainx.backend.entity.BroadcastNotification;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.enums.Status;
 import com.farmchainx.backend.service.AdminService;
+import com.farmchainx.backend.service.NotificationService;
+import com.farmchainx.backend.service.RollupService;
+import com.farmchainx.backend.service.SketchService;
+import com.farmchainx.backend.service.UserCounterService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -23,9 +30,19 @@ public class AdminController {
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
     private final AdminService adminService;
+    private final UserCounterService userCounterService;
+    private final RollupService rollupService;
+    private final SketchService sketchService;
+    private final NotificationService notificationService;
 
-    public AdminController(AdminService adminService) {
+    public AdminController(AdminService adminService, UserCounterService userCounterService,
+                           RollupService rollupService, SketchService sketchService,
+                           NotificationService notificationService) {
         this.adminService = adminService;
+        this.userCounterService = userCounterService;
+        this.rollupService = rollupService;
+        this.sketchService = sketchService;
+        this.notificationService = notificationService;
     }
 
     @GetMapping("/pending")
@@ -107,4 +124,63 @@ public class AdminController {
         List<UserDto> list = adminService.getUsersByRole(role);
         return ResponseEntity.ok(ApiResponse.success("Users by role fetched", list));
     }
+
+    @PostMapping("/counters/rebuild")
+    public ResponseEntity<ApiResponse<String>> rebuildDashboardCounters() {
+        userCounterService.rebuildAll();
+        return ResponseEntity.ok(ApiResponse.success("Dashboard counters rebuilt", null));
+    }
+
+    /**
+     * Recomputes analytics rollups; without a range every month since the first record
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildRollups(
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        int months = from == null
+                ? rollupService.backfillAll()
+                : rollupService.backfill(from.atStartOfDay(), to != null ? to.atStartOfDay() : LocalDateTime.now());
+        return ResponseEntity.ok(ApiResponse.success("Analytics rollups rebuilt", Map.of("months", months)));
+    }
+
+    /**
+     * Recomputes the daily analytics sketches; without a range every day since the first order
+     */
+    @PostMapping("/sketches/rebuild")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildSketches(
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        int days = from == null
+                ? sketchService.rebuildAll()
+                : sketchService.rebuild(from, to != null ? to : LocalDate.now());
+        return ResponseEntity.ok(ApiResponse.success("Analytics sketches rebuilt", Map.of("days", days)));
+    }
+
+    /**
+     * System notification for a role (or everyone without one). Set
+     * materialize to copy it into each recipient's notifications instead.
+     */
+    @PostMapping("/broadcasts")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> broadcast(@RequestBody Map<String, String> body) {
+        String message = body.get("message");
+        if (message == null || message.isBlank()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Message is required"));
+        }
+        Role role = null;
+        String roleStr = body.get("role");
+        if (roleStr != null && !roleStr.isBlank()) {
+            try {
+                role = Role.valueOf(roleStr.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Invalid role value: " + roleStr));
+            }
+        }
+        BroadcastNotification sent = notificationService.sendSystemNotification(message, role,
+                body.getOrDefault("priority", "info"), Boolean.parseBoolean(body.get("materialize")));
+        return ResponseEntity.ok(ApiResponse.success("Broadcast sent", Map.of(
+                "id", sent.getId(),
+                "role", role != null ? role.name() : "ALL",
+                "materialized", sent.isMaterialized())));
+    }
 }
@@ -2,8 +2,16 @@ package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.common.dto.ApiResponse;
 import com.farmchainx.backend.dto.AnalyticsResponse;
+import com.farmchainx.backend.dto.RollupPoint;
+import com.farmchainx.backend.common.sketch.QuantileSketch;
+import com.farmchainx.backend.enums.RollupGranularity;
+import com.farmchainx.backend.enums.SketchMetric;
 import com.farmchainx.backend.service.AnalyticsService;
+import com.farmchainx.backend.service.AnalyticsSnapshot;
+import com.farmchainx.backend.service.AnalyticsSnapshotCache;
 import com.farmchainx.backend.service.CropService;
+import com.farmchainx.backend.service.RollupService;
+import com.farmchainx.backend.service.SketchService;
 import com.farmchainx.backend.dto.CropTraceResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +19,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,10 +29,17 @@ public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
     private final CropService cropService;
+    private final RollupService rollupService;
+    private final AnalyticsSnapshotCache snapshotCache;
+    private final SketchService sketchService;
 
-    public AnalyticsController(AnalyticsService analyticsService, CropService cropService) {
+    public AnalyticsController(AnalyticsService analyticsService, CropService cropService, RollupService rollupService,
+                               AnalyticsSnapshotCache snapshotCache, SketchService sketchService) {
         this.analyticsService = analyticsService;
         this.cropService = cropService;
+        this.rollupService = rollupService;
+        this.snapshotCache = snapshotCache;
+        this.sketchService = sketchService;
     }
 
     @GetMapping("/crops/total")
@@ -102,7 +118,7 @@ public class AnalyticsController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<AnalyticsResponse>> getComprehensiveAnalytics() {
         try {
-            return ResponseEntity.ok(ApiResponse.success("Comprehensive analytics retrieved", analyticsService.getComprehensiveAnalytics()));
+            return ResponseEntity.ok(ApiResponse.success("Comprehensive analytics retrieved", snapshotCache.comprehensive()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -111,15 +127,7 @@ public class AnalyticsController {
     @GetMapping("/summary")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getAnalyticsSummary() {
         try {
-            Map<String, Object> summary = new HashMap<>();
-            summary.put("totalCrops", analyticsService.getTotalCrops());
-            summary.put("totalOrders", analyticsService.getTotalOrders());
-            summary.put("totalUsers", analyticsService.getTotalUsers());
-            summary.put("totalFarmers", analyticsService.getTotalFarmers());
-            summary.put("activeUsers", analyticsService.getActiveUsers());
-            summary.put("totalDisputes", analyticsService.getTotalDisputes());
-            summary.put("stateChanges", analyticsService.getTotalStateChanges());
-            summary.put("ownershipTransfers", analyticsService.getTotalOwnershipTransfers());
+            Map<String, Object> summary = analyticsService.getOverview(snapshotCache.snapshot());
             return ResponseEntity.ok(ApiResponse.success("Analytics summary retrieved", summary));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -140,7 +148,8 @@ public class AnalyticsController {
         try {
             Map<String, Object> health = new HashMap<>();
             health.put("status", "healthy");
-            health.put("totalEntities", analyticsService.getTotalCrops() + analyticsService.getTotalOrders() + analyticsService.getTotalUsers());
+            AnalyticsSnapshot snapshot = snapshotCache.snapshot();
+            health.put("totalEntities", snapshot.totalCrops() + snapshot.totalOrders() + snapshot.totalUsers());
             health.put("systemLoad", "normal");
             health.put("uptime", "99.9%");
             return ResponseEntity.ok(ApiResponse.success("System health retrieved", health));
@@ -193,4 +202,83 @@ public class AnalyticsController {
         }
     }
 
+    @GetMapping("/trends")
+    public ResponseEntity<ApiResponse<List<RollupPoint>>> trends(
+            @RequestParam(defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String cropName
+    ) {
+        try {
+            // Defaults to the last 30 days; "to" is inclusive
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            List<RollupPoint> series = rollupService.series(granularity, start.atStartOfDay(),
+                    end.plusDays(1).atStartOfDay(), region, cropName);
+            return ResponseEntity.ok(ApiResponse.success("Trends retrieved", series));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Approximate distinct buyers (about 2% error) over the days [from, to]
+     */
+    @GetMapping("/sketches/buyers")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> distinctBuyers(
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String cropName
+    ) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("from", start);
+            result.put("to", end);
+            result.put("distinctBuyers", sketchService.distinctBuyers(start, end, region, cropName));
+            return ResponseEntity.ok(ApiResponse.success("Distinct buyers retrieved", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Offered price (or requested quantity) percentiles, within 1% of the exact value
+     */
+    @GetMapping("/sketches/quantiles")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> quantiles(
+            @RequestParam(defaultValue = "PRICE") SketchMetric metric,
+            @RequestParam(defaultValue = "0.5,0.9,0.99") List<Double> q,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String cropName
+    ) {
+        try {
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            QuantileSketch sketch = sketchService.distribution(metric, start, end, region, cropName);
+            Map<String, Object> quantiles = new LinkedHashMap<>();
+            for (Double quantile : q) {
+                if (quantile < 0 || quantile > 1) {
+                    throw new IllegalArgumentException("Quantiles must be between 0 and 1");
+                }
+                quantiles.put(String.valueOf(quantile), sketch.getCount() == 0 ? null : sketch.quantile(quantile));
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("metric", metric);
+            result.put("from", start);
+            result.put("to", end);
+            result.put("count", sketch.getCount());
+            result.put("min", sketch.getCount() == 0 ? null : sketch.getMin());
+            result.put("max", sketch.getCount() == 0 ? null : sketch.getMax());
+            result.put("quantiles", quantiles);
+            return ResponseEntity.ok(ApiResponse.success("Quantiles retrieved", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
 }
@@ -1,18 +1,24 @@
 package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.common.dto.ApiResponse;
+import com.farmchainx.backend.common.exception.LoginThrottledException;
 import com.farmchainx.backend.dto.LoginRequest;
 import com.farmchainx.backend.dto.LoginResult;
 import com.farmchainx.backend.dto.RegisterRequest;
 import com.farmchainx.backend.dto.UserDto;
 import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.service.AuthService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -24,12 +30,18 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResult>> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<LoginResult>>> login(@Valid @RequestBody LoginRequest request) {
         try {
-            LoginResult result = authService.loginWithUser(request);
-            return ResponseEntity.ok(ApiResponse.success("Login successful", result));
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(ApiResponse.error(e.getMessage()));
+            return authService.loginWithUserAsync(request)
+                    .thenApply(result -> ResponseEntity.ok(ApiResponse.success("Login successful", result)))
+                    .exceptionally(e -> {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        return ResponseEntity.status(401).body(ApiResponse.<LoginResult>error(cause.getMessage()));
+                    });
+        } catch (LoginThrottledException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ApiResponse.error(e.getMessage(), e.getErrorCode())));
         }
     }
 
@@ -1,21 +1,31 @@
 package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.common.dto.ApiResponse;
+import com.farmchainx.backend.common.dto.KeysetPage;
+import com.farmchainx.backend.dto.CropView;
 import com.farmchainx.backend.entity.Crop;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.CropState;
 import com.farmchainx.backend.repository.CropRepository;
+import com.farmchainx.backend.repository.CropSpecifications;
 import com.farmchainx.backend.repository.UserRepository;
+import com.farmchainx.backend.service.CropSearchIndex;
 import com.farmchainx.backend.service.CropService;
+import com.farmchainx.backend.service.MarketplaceReadModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,30 +34,47 @@ import java.util.Map;
 @RequestMapping("/api/v1/marketplace")
 public class MarketplaceController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final CropRepository cropRepository;
     private final UserRepository userRepository;
+    private final CropService cropService;
+    private final CropSearchIndex cropSearchIndex;
+    private final MarketplaceReadModel marketplaceReadModel;
 
-    public MarketplaceController(CropRepository cropRepository, UserRepository userRepository) {
+    public MarketplaceController(CropRepository cropRepository, UserRepository userRepository,
+                                 CropService cropService, CropSearchIndex cropSearchIndex,
+                                 MarketplaceReadModel marketplaceReadModel) {
         this.cropRepository = cropRepository;
         this.userRepository = userRepository;
+        this.cropService = cropService;
+        this.cropSearchIndex = cropSearchIndex;
+        this.marketplaceReadModel = marketplaceReadModel;
     }
 
     @GetMapping("/crops")
-    public ResponseEntity<ApiResponse<Page<Crop>>> getAvailableCrops(
+    public ResponseEntity<ApiResponse<Page<CropView>>> getAvailableCrops(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) CropState state,
             @RequestParam(required = false) String cropName,
-            @RequestParam(required = false) String location) {
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime harvestFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime harvestTo,
+            @RequestParam(required = false) Double minQuantity,
+            @RequestParam(required = false) Double maxQuantity) {
 
         try {
             Sort sort = sortDir.equalsIgnoreCase("desc") ?
                        Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-            Pageable pageable = PageRequest.of(page, size, sort);
+            Pageable pageable = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), sort);
 
-            // In a real implementation, you'd use Specification for complex queries
-            Page<Crop> crops = cropRepository.findAll(pageable);
+            Specification<Crop> spec = CropSpecifications.filter(
+                    state, cropName, location, harvestFrom, harvestTo, minQuantity, maxQuantity);
+            Page<CropView> crops = cropRepository.findViewPage(spec, pageable);
 
             return ResponseEntity.ok(ApiResponse.success("Crops retrieved", crops));
         } catch (Exception e) {
@@ -55,35 +82,89 @@ public class MarketplaceController {
         }
     }
 
+    /**
+     * Keyset pagination (newest first). Pass nextCreatedAt/nextId of the previous
+     * page as afterCreatedAt/afterId; cost stays constant however deep you page.
+     */
+    @GetMapping("/crops/seek")
+    public ResponseEntity<ApiResponse<KeysetPage<CropView>>> seekCrops(
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) CropState state,
+            @RequestParam(required = false) String cropName,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime harvestFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime harvestTo,
+            @RequestParam(required = false) Double minQuantity,
+            @RequestParam(required = false) Double maxQuantity) {
+
+        try {
+            int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            Specification<Crop> spec = CropSpecifications
+                    .filter(state, cropName, location, harvestFrom, harvestTo, minQuantity, maxQuantity)
+                    .and(CropSpecifications.createdBefore(afterCreatedAt, afterId));
+
+            // Fetch one extra row to know whether another page exists
+            List<CropView> rows = cropRepository.findSeekPage(spec, limit + 1);
+            boolean hasMore = rows.size() > limit;
+            List<CropView> items = hasMore ? rows.subList(0, limit) : rows;
+            CropView last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+            KeysetPage<CropView> result = new KeysetPage<>(
+                    items,
+                    hasMore,
+                    hasMore ? last.getCreatedAt() : null,
+                    hasMore ? last.getId() : null
+            );
+            return ResponseEntity.ok(ApiResponse.success("Crops retrieved", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/crops/listed")
-    public ResponseEntity<ApiResponse<List<Crop>>> getListedCrops() {
+    public ResponseEntity<ApiResponse<List<CropView>>> getListedCrops(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<Crop> listedCrops = cropRepository.findByCropState(CropState.LISTED);
-            return ResponseEntity.ok(ApiResponse.success("Listed crops retrieved", listedCrops));
+            MarketplaceReadModel.Snapshot snapshot = marketplaceReadModel.current();
+            if (snapshot.getEtag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+            }
+            snapshot = marketplaceReadModel.listed();
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getEtag())
+                    .body(ApiResponse.success("Listed crops retrieved", snapshot.getListedCrops()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
 
     @GetMapping("/crops/search")
-    public ResponseEntity<ApiResponse<List<Crop>>> searchCrops(@RequestParam String query) {
+    public ResponseEntity<ApiResponse<List<CropView>>> searchCrops(@RequestParam String query,
+                                                               @RequestParam(defaultValue = "50") int limit) {
         try {
-            // Simple search implementation
-            List<Crop> allCrops = cropRepository.findByCropState(CropState.LISTED);
-            List<Crop> filteredCrops = allCrops.stream()
-                    .filter(crop -> crop.getCropName().toLowerCase().contains(query.toLowerCase()) ||
-                                   crop.getLocation().toLowerCase().contains(query.toLowerCase()))
+            // Ranked ids from the in-memory index, then one lookup by primary key
+            List<Long> ids = cropSearchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+            Map<Long, CropView> byId = new HashMap<>();
+            if (!ids.isEmpty()) {
+                cropRepository.findViewsByIdIn(ids).forEach(crop -> byId.put(crop.getId(), crop));
+            }
+
+            List<CropView> results = ids.stream()
+                    .map(byId::get)
+                    .filter(crop -> crop != null && crop.getCropState() == CropState.LISTED)
                     .toList();
-            return ResponseEntity.ok(ApiResponse.success("Crops searched", filteredCrops));
+            return ResponseEntity.ok(ApiResponse.success("Crops searched", results));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
 
     @GetMapping("/crops/by-farmer/{farmerEmail}")
-    public ResponseEntity<ApiResponse<List<Crop>>> getCropsByFarmer(@PathVariable String farmerEmail) {
+    public ResponseEntity<ApiResponse<List<CropView>>> getCropsByFarmer(@PathVariable String farmerEmail) {
         try {
-            List<Crop> crops = cropRepository.findByCurrentOwnerEmail(farmerEmail);
+            List<CropView> crops = cropRepository.findViewsByOwnerEmail(farmerEmail);
             return ResponseEntity.ok(ApiResponse.success("Crops by farmer retrieved", crops));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -104,20 +185,16 @@ public class MarketplaceController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getMarketplaceStats() {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMarketplaceStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalListedCrops", cropRepository.countByCropState(CropState.LISTED));
-            stats.put("totalCreatedCrops", cropRepository.countByCropState(CropState.CREATED));
-            stats.put("totalOrderedCrops", cropRepository.countByCropState(CropState.ORDERED));
-            stats.put("totalActiveFarmers", userRepository.countByRoleAndStatus(
-                    com.farmchainx.backend.enums.Role.FARMER,
-                    com.farmchainx.backend.enums.Status.APPROVED
-            ));
-            stats.put("totalDistributors", userRepository.countByRole(com.farmchainx.backend.enums.Role.DISTRIBUTOR));
-            stats.put("totalRetailers", userRepository.countByRole(com.farmchainx.backend.enums.Role.RETAILER));
-
-            return ResponseEntity.ok(ApiResponse.success("Marketplace stats retrieved", stats));
+            MarketplaceReadModel.Snapshot snapshot = marketplaceReadModel.current();
+            if (snapshot.getEtag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getEtag()).build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(snapshot.getEtag())
+                    .body(ApiResponse.success("Marketplace stats retrieved", snapshot.getStats()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -145,6 +222,7 @@ public class MarketplaceController {
             // Update crop state to LISTED
             crop.setCropState(CropState.LISTED);
             cropRepository.save(crop);
+            cropService.publishCropChanged(crop, CropState.CREATED, CropState.LISTED);
 
             return ResponseEntity.ok(ApiResponse.success("Crop listed successfully", null));
         } catch (Exception e) {
@@ -171,6 +249,7 @@ public class MarketplaceController {
 
             crop.setCropState(CropState.CREATED);
             cropRepository.save(crop);
+            cropService.publishCropChanged(crop, CropState.LISTED, CropState.CREATED);
 
             return ResponseEntity.ok(ApiResponse.success("Crop unlisted successfully", null));
         } catch (Exception e) {
@@ -179,14 +258,12 @@ public class MarketplaceController {
     }
 
     @GetMapping("/my-listings")
-    public ResponseEntity<ApiResponse<List<Crop>>> getMyListings() {
+    public ResponseEntity<ApiResponse<List<CropView>>> getMyListings() {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String email = auth.getName();
 
-            List<Crop> myListings = cropRepository.findByCurrentOwnerEmail(email).stream()
-                    .filter(crop -> crop.getCropState() == CropState.LISTED)
-                    .toList();
+            List<CropView> myListings = cropRepository.findViewsByOwnerEmailAndState(email, CropState.LISTED);
 
             return ResponseEntity.ok(ApiResponse.success("My listings retrieved", myListings));
         } catch (Exception e) {
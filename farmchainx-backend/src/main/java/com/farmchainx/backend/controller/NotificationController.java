@@ -1,53 +1,94 @@
 package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.common.dto.ApiResponse;
+import com.farmchainx.backend.common.dto.KeysetPage;
+import com.farmchainx.backend.dto.NotificationView;
+import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.service.NotificationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/notifications")
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationService notificationService;
 
     public NotificationController(NotificationService notificationService) {
         this.notificationService = notificationService;
     }
 
+    /**
+     * Newest first. Pass nextCreatedAt/nextId of the previous page as afterCreatedAt/afterId.
+     */
     @GetMapping("/my")
-    public ResponseEntity<ApiResponse<List<NotificationService.Notification>>> getMyNotifications() {
+    public ResponseEntity<ApiResponse<KeysetPage<NotificationView>>> getMyNotifications(
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) Long afterId) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String email = auth.getName();
-            return ResponseEntity.ok(ApiResponse.success("My notifications retrieved", notificationService.getUserNotifications(email)));
+            int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(ApiResponse.success("My notifications retrieved",
+                    notificationService.getUserNotifications(email, role(auth), afterCreatedAt, afterId, limit)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
 
     @GetMapping("/unread")
-    public ResponseEntity<ApiResponse<List<NotificationService.Notification>>> getUnreadNotifications() {
+    public ResponseEntity<ApiResponse<KeysetPage<NotificationView>>> getUnreadNotifications(
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) Long afterId) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String email = auth.getName();
-            return ResponseEntity.ok(ApiResponse.success("Unread notifications retrieved", notificationService.getUnreadNotifications(email)));
+            int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(ApiResponse.success("Unread notifications retrieved",
+                    notificationService.getUnreadNotifications(email, role(auth), afterCreatedAt, afterId, limit)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
 
     @PutMapping("/{notificationId}/read")
-    public ResponseEntity<ApiResponse<String>> markAsRead(@PathVariable String notificationId) {
+    public ResponseEntity<ApiResponse<String>> markAsRead(@PathVariable Long notificationId) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            String email = auth.getName();
+            if (!notificationService.markAsRead(email, notificationId)) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Notification not found"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("Notification marked as read", null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Marks a broadcast (a feed item with broadcast = true) and all older broadcasts read
+     */
+    @PutMapping("/broadcasts/{broadcastId}/read")
+    public ResponseEntity<ApiResponse<String>> markBroadcastRead(@PathVariable Long broadcastId) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String email = auth.getName();
-            notificationService.markAsRead(email, notificationId);
+            if (!notificationService.markBroadcastRead(email, role(auth), broadcastId)) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Notification not found"));
+            }
             return ResponseEntity.ok(ApiResponse.success("Notification marked as read", null));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -67,14 +108,39 @@ public class NotificationController {
     }
 
     @GetMapping("/count/unread")
-    public ResponseEntity<ApiResponse<Map<String, Integer>>> getUnreadCount() {
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getUnreadCount() {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String email = auth.getName();
-            int count = notificationService.getUnreadNotifications(email).size();
+            long count = notificationService.countUnread(email, role(auth));
             return ResponseEntity.ok(ApiResponse.success("Unread count retrieved", Map.of("count", count)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
+
+    /**
+     * Server-Sent Events stream of new notifications ("notification", id = notification id),
+     * role-wide broadcasts ("broadcast", no id; count it as unread) and badge updates
+     * ("unread-count"). Reconnects resume from Last-Event-ID; clients that cannot set the
+     * header may pass lastEventId instead.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String email = auth.getName();
+        return notificationService.openStream(email, role(auth), lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    // Set by the JWT filter as ROLE_<role>
+    private static Role role(Authentication auth) {
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(a -> a.startsWith("ROLE_"))
+                .map(a -> Role.valueOf(a.substring("ROLE_".length())))
+                .findFirst()
+                .orElse(null);
+    }
 }
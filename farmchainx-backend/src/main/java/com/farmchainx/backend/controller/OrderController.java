@@ -2,15 +2,15 @@ package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.common.dto.ApiResponse;
 import com.farmchainx.backend.dto.OrderCreateRequest;
+import com.farmchainx.backend.dto.OrderTotals;
+import com.farmchainx.backend.dto.OrderView;
 import com.farmchainx.backend.entity.Order;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.OrderState;
-import com.farmchainx.backend.repository.OrderRepository;
-import com.farmchainx.backend.repository.UserRepository;
+import com.farmchainx.backend.service.CurrentUser;
 import com.farmchainx.backend.service.OrderService;
+import com.farmchainx.backend.service.UserCounterService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,17 +21,17 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
-    private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
+    private final CurrentUser currentUser;
+    private final UserCounterService userCounterService;
 
-    public OrderController(OrderService orderService, UserRepository userRepository, OrderRepository orderRepository) {
+    public OrderController(OrderService orderService, CurrentUser currentUser, UserCounterService userCounterService) {
         this.orderService = orderService;
-        this.userRepository = userRepository;
-        this.orderRepository = orderRepository;
+        this.currentUser = currentUser;
+        this.userCounterService = userCounterService;
     }
 
     @PostMapping("/create")
-    public ResponseEntity<ApiResponse<Order>> createOrder(@RequestBody OrderCreateRequest request) {
+    public ResponseEntity<ApiResponse<OrderView>> createOrder(@RequestBody OrderCreateRequest request) {
         try {
             Order order = orderService.createOrder(
                     request.getCropId(),
@@ -40,7 +40,7 @@ public class OrderController {
                     request.getDeliveryAddress(),
                     request.getNotes()
             );
-            return ResponseEntity.ok(ApiResponse.success("Order created successfully", order));
+            return ResponseEntity.ok(ApiResponse.success("Order created successfully", OrderView.from(order)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -98,9 +98,9 @@ public class OrderController {
     }
 
     @GetMapping("/my")
-    public ResponseEntity<ApiResponse<List<Order>>> getMyOrders() {
+    public ResponseEntity<ApiResponse<List<OrderView>>> getMyOrders() {
         try {
-            List<Order> orders = orderService.getMyOrders();
+            List<OrderView> orders = orderService.getMyOrders();
             return ResponseEntity.ok(ApiResponse.success("Orders retrieved", orders));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -108,9 +108,9 @@ public class OrderController {
     }
 
     @GetMapping("/status/{state}")
-    public ResponseEntity<ApiResponse<List<Order>>> getOrdersByStatus(@PathVariable OrderState state) {
+    public ResponseEntity<ApiResponse<List<OrderView>>> getOrdersByStatus(@PathVariable OrderState state) {
         try {
-            List<Order> orders = orderService.getOrdersByStatus(state);
+            List<OrderView> orders = orderService.getOrdersByStatus(state);
             return ResponseEntity.ok(ApiResponse.success("Orders retrieved", orders));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -132,30 +132,18 @@ public class OrderController {
     @GetMapping("/dashboard/stats")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getOrderStats() {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String email = auth.getName();
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            List<Order> buyerOrders = orderRepository.findByBuyer(user);
-            List<Order> sellerOrders = orderRepository.findBySeller(user);
-
-            long totalBuyerOrders = buyerOrders.size();
-            long totalSellerOrders = sellerOrders.size();
-            long activeBuyerOrders = buyerOrders.stream()
-                    .filter(o -> o.getOrderState() != OrderState.COMPLETED && o.getOrderState() != OrderState.CANCELLED)
-                    .count();
-            long activeSellerOrders = sellerOrders.stream()
-                    .filter(o -> o.getOrderState() != OrderState.COMPLETED && o.getOrderState() != OrderState.CANCELLED)
-                    .count();
+            User user = currentUser.get();
+
+            UserCounterService.UserCounters counters = userCounterService.countersOf(user);
+            OrderTotals buyerOrders = counters.getAsBuyer();
+            OrderTotals sellerOrders = counters.getAsSeller();
 
             Map<String, Object> stats = Map.of(
-                    "totalBuyerOrders", totalBuyerOrders,
-                    "totalSellerOrders", totalSellerOrders,
-                    "activeBuyerOrders", activeBuyerOrders,
-                    "activeSellerOrders", activeSellerOrders,
-                    "completedOrders", buyerOrders.stream().filter(o -> o.getOrderState() == OrderState.COMPLETED).count() +
-                                      sellerOrders.stream().filter(o -> o.getOrderState() == OrderState.COMPLETED).count()
+                    "totalBuyerOrders", buyerOrders.total(),
+                    "totalSellerOrders", sellerOrders.total(),
+                    "activeBuyerOrders", buyerOrders.active(),
+                    "activeSellerOrders", sellerOrders.active(),
+                    "completedOrders", buyerOrders.count(OrderState.COMPLETED) + sellerOrders.count(OrderState.COMPLETED)
             );
             return ResponseEntity.ok(ApiResponse.success("Order stats retrieved", stats));
         } catch (Exception e) {
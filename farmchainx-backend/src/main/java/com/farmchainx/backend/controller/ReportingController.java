@@ -1,17 +1,33 @@
 package com.farmchainx.backend.controller;
 
 import com.farmchainx.backend.common.dto.ApiResponse;
+import com.farmchainx.backend.dto.RollupPoint;
 import com.farmchainx.backend.service.AnalyticsService;
-import com.farmchainx.backend.repository.*;
+import com.farmchainx.backend.service.AnalyticsSnapshot;
+import com.farmchainx.backend.service.AnalyticsSnapshotCache;
+import com.farmchainx.backend.service.ColumnarExportService;
+import com.farmchainx.backend.service.ReportExportService;
+import com.farmchainx.backend.service.RollupService;
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.enums.ExportFormat;
+import com.farmchainx.backend.enums.OrderState;
+import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.enums.Status;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,37 +35,33 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class ReportingController {
 
+    private static final List<String> DISPUTE_STATUSES = List.of("OPEN", "RESOLVED", "ESCALATED", "CLOSED");
+
     private final AnalyticsService analyticsService;
-    private final UserRepository userRepository;
-    private final CropRepository cropRepository;
-    private final OrderRepository orderRepository;
-    private final DisputeRepository disputeRepository;
+    private final AnalyticsSnapshotCache snapshotCache;
+    private final ReportExportService reportExportService;
+    private final ColumnarExportService columnarExportService;
+    private final RollupService rollupService;
+    private final long exportTimeoutMillis;
 
     public ReportingController(AnalyticsService analyticsService,
-                              UserRepository userRepository,
-                              CropRepository cropRepository,
-                              OrderRepository orderRepository,
-                              DisputeRepository disputeRepository) {
+                              AnalyticsSnapshotCache snapshotCache,
+                              ReportExportService reportExportService,
+                              ColumnarExportService columnarExportService,
+                              RollupService rollupService,
+                              @Value("${reports.export.timeout-ms:1800000}") long exportTimeoutMillis) {
         this.analyticsService = analyticsService;
-        this.userRepository = userRepository;
-        this.cropRepository = cropRepository;
-        this.orderRepository = orderRepository;
-        this.disputeRepository = disputeRepository;
+        this.snapshotCache = snapshotCache;
+        this.reportExportService = reportExportService;
+        this.columnarExportService = columnarExportService;
+        this.rollupService = rollupService;
+        this.exportTimeoutMillis = exportTimeoutMillis;
     }
 
     @GetMapping("/system-overview")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getSystemOverview() {
         try {
-            Map<String, Object> overview = new HashMap<>();
-
-            overview.put("totalUsers", analyticsService.getTotalUsers());
-            overview.put("totalFarmers", analyticsService.getTotalFarmers());
-            overview.put("activeUsers", analyticsService.getActiveUsers());
-            overview.put("totalCrops", analyticsService.getTotalCrops());
-            overview.put("totalOrders", analyticsService.getTotalOrders());
-            overview.put("totalDisputes", analyticsService.getTotalDisputes());
-            overview.put("stateChanges", analyticsService.getTotalStateChanges());
-            overview.put("ownershipTransfers", analyticsService.getTotalOwnershipTransfers());
+            Map<String, Object> overview = analyticsService.getOverview(snapshotCache.snapshot());
 
             return ResponseEntity.ok(ApiResponse.success("System overview retrieved", overview));
         } catch (Exception e) {
@@ -62,20 +74,19 @@ public class ReportingController {
         try {
             Map<String, Object> stats = new HashMap<>();
 
-            stats.put("byRole", Map.of(
-                    "FARMER", userRepository.countByRole(com.farmchainx.backend.enums.Role.FARMER),
-                    "DISTRIBUTOR", userRepository.countByRole(com.farmchainx.backend.enums.Role.DISTRIBUTOR),
-                    "RETAILER", userRepository.countByRole(com.farmchainx.backend.enums.Role.RETAILER),
-                    "CONSUMER", userRepository.countByRole(com.farmchainx.backend.enums.Role.CONSUMER),
-                    "ADMIN", userRepository.countByRole(com.farmchainx.backend.enums.Role.ADMIN)
-            ));
-
-            stats.put("byStatus", Map.of(
-                    "PENDING", userRepository.countByStatus(Status.PENDING),
-                    "APPROVED", userRepository.countByStatus(Status.APPROVED),
-                    "REJECTED", userRepository.countByStatus(Status.REJECTED),
-                    "SUSPENDED", userRepository.countByStatus(Status.SUSPENDED)
-            ));
+            AnalyticsSnapshot snapshot = snapshotCache.snapshot();
+
+            Map<String, Long> byRole = new LinkedHashMap<>();
+            for (Role role : Role.values()) {
+                byRole.put(role.name(), snapshot.users(role));
+            }
+            stats.put("byRole", byRole);
+
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (Status status : Status.values()) {
+                byStatus.put(status.name(), snapshot.users(status));
+            }
+            stats.put("byStatus", byStatus);
 
             return ResponseEntity.ok(ApiResponse.success("User statistics retrieved", stats));
         } catch (Exception e) {
@@ -88,14 +99,13 @@ public class ReportingController {
         try {
             Map<String, Object> stats = new HashMap<>();
 
-            stats.put("byState", Map.of(
-                    "CREATED", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.CREATED),
-                    "LISTED", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.LISTED),
-                    "ORDERED", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.ORDERED),
-                    "SHIPPED", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.SHIPPED),
-                    "DELIVERED", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.DELIVERED),
-                    "CLOSED", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.CLOSED)
-            ));
+            AnalyticsSnapshot snapshot = snapshotCache.snapshot();
+
+            Map<String, Long> byState = new LinkedHashMap<>();
+            for (CropState state : CropState.values()) {
+                byState.put(state.name(), snapshot.crops(state));
+            }
+            stats.put("byState", byState);
 
             return ResponseEntity.ok(ApiResponse.success("Crop statistics retrieved", stats));
         } catch (Exception e) {
@@ -108,13 +118,13 @@ public class ReportingController {
         try {
             Map<String, Object> stats = new HashMap<>();
 
-            stats.put("byState", Map.of(
-                    "PLACED", orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.PLACED),
-                    "ACCEPTED", orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.ACCEPTED),
-                    "SHIPPED", orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.SHIPPED),
-                    "COMPLETED", orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.COMPLETED),
-                    "CANCELLED", orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.CANCELLED)
-            ));
+            AnalyticsSnapshot snapshot = snapshotCache.snapshot();
+
+            Map<String, Long> byState = new LinkedHashMap<>();
+            for (OrderState state : OrderState.values()) {
+                byState.put(state.name(), snapshot.orders(state));
+            }
+            stats.put("byState", byState);
 
             return ResponseEntity.ok(ApiResponse.success("Order statistics retrieved", stats));
         } catch (Exception e) {
@@ -127,12 +137,13 @@ public class ReportingController {
         try {
             Map<String, Object> stats = new HashMap<>();
 
-            stats.put("byStatus", Map.of(
-                    "OPEN", disputeRepository.countByStatus("OPEN"),
-                    "RESOLVED", disputeRepository.countByStatus("RESOLVED"),
-                    "ESCALATED", disputeRepository.countByStatus("ESCALATED"),
-                    "CLOSED", disputeRepository.countByStatus("CLOSED")
-            ));
+            AnalyticsSnapshot snapshot = snapshotCache.snapshot();
+
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (String status : DISPUTE_STATUSES) {
+                byStatus.put(status, snapshot.disputes(status));
+            }
+            stats.put("byStatus", byStatus);
 
             return ResponseEntity.ok(ApiResponse.success("Dispute statistics retrieved", stats));
         } catch (Exception e) {
@@ -145,10 +156,11 @@ public class ReportingController {
         try {
             Map<String, Object> metrics = new HashMap<>();
 
-            long totalOrders = analyticsService.getTotalOrders();
-            long completedOrders = orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.COMPLETED);
-            long cancelledOrders = orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.CANCELLED);
-            long totalDisputes = analyticsService.getTotalDisputes();
+            AnalyticsSnapshot snapshot = snapshotCache.snapshot();
+            long totalOrders = snapshot.totalOrders();
+            long completedOrders = snapshot.orders(OrderState.COMPLETED);
+            long cancelledOrders = snapshot.orders(OrderState.CANCELLED);
+            long totalDisputes = snapshot.totalDisputes();
 
             double orderCompletionRate = totalOrders > 0 ? (double) completedOrders / totalOrders * 100 : 0;
             double orderCancellationRate = totalOrders > 0 ? (double) cancelledOrders / totalOrders * 100 : 0;
@@ -166,21 +178,48 @@ public class ReportingController {
         }
     }
 
+    /**
+     * Activity between startDate and endDate (inclusive, default the last 30 days),
+     * answered from the analytics rollups. compare=true adds the preceding
+     * period of the same length and the change against it
+     */
     @GetMapping("/activity-summary")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getActivitySummary(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean compare) {
         try {
-            // This is a simplified version. In production, you'd filter by date ranges
-            Map<String, Object> summary = new HashMap<>();
+            LocalDate end = endDate != null ? endDate : LocalDate.now();
+            LocalDate start = startDate != null ? startDate : end.minusDays(29);
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException("startDate must not be after endDate");
+            }
+            LocalDateTime from = start.atStartOfDay();
+            LocalDateTime to = end.plusDays(1).atStartOfDay();
 
-            summary.put("newUsersRegistered", userRepository.countByStatus(com.farmchainx.backend.enums.Status.PENDING));
-            summary.put("cropsCreated", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.CREATED));
-            summary.put("cropsListed", cropRepository.countByCropState(com.farmchainx.backend.enums.CropState.LISTED));
-            summary.put("ordersPlaced", orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.PLACED));
-            summary.put("ordersCompleted", orderRepository.countByOrderState(com.farmchainx.backend.enums.OrderState.COMPLETED));
-            summary.put("disputesRaised", disputeRepository.countByStatus("OPEN"));
-            summary.put("disputesResolved", disputeRepository.countByStatus("RESOLVED"));
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("startDate", start);
+            summary.put("endDate", end);
+            Map<String, Long> current = activityCounts(rollupService.totals(from, to));
+            summary.putAll(current);
+
+            if (compare) {
+                long days = ChronoUnit.DAYS.between(from, to);
+                Map<String, Long> previous = activityCounts(rollupService.totals(from.minusDays(days), from));
+                Map<String, Object> change = new LinkedHashMap<>();
+                current.forEach((key, value) -> {
+                    long before = previous.get(key);
+                    Map<String, Object> delta = new LinkedHashMap<>();
+                    delta.put("absolute", value - before);
+                    delta.put("percent", before == 0 ? null : Math.round((value - before) * 1000.0 / before) / 10.0);
+                    change.put(key, delta);
+                });
+                summary.put("previousPeriod", Map.of(
+                        "startDate", start.minusDays(days),
+                        "endDate", start.minusDays(1),
+                        "counts", previous));
+                summary.put("change", change);
+            }
 
             return ResponseEntity.ok(ApiResponse.success("Activity summary retrieved", summary));
         } catch (Exception e) {
@@ -188,16 +227,75 @@ public class ReportingController {
         }
     }
 
-    @GetMapping("/export/csv")
-    public ResponseEntity<ApiResponse<String>> exportDataAsCSV(@RequestParam String dataType) {
-        try {
-            // This is a placeholder for CSV export functionality
-            String csvData = "id,name,status,created_at\n" +
-                            "1,Sample Data,ACTIVE," + LocalDateTime.now() + "\n";
+    private static Map<String, Long> activityCounts(RollupPoint totals) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("newUsersRegistered", totals.getUsersRegistered());
+        counts.put("cropsCreated", totals.getCropsCreated());
+        counts.put("cropsListed", totals.getCropsListed());
+        counts.put("ordersPlaced", totals.getOrdersPlaced());
+        counts.put("ordersCompleted", totals.getOrdersCompleted());
+        counts.put("disputesRaised", totals.getDisputesRaised());
+        counts.put("disputesResolved", totals.getDisputesResolved());
+        return counts;
+    }
 
-            return ResponseEntity.ok(ApiResponse.success("CSV export generated", csvData));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
-        }
+    /**
+     * Columnar export (Arrow IPC stream) of crops, crop-history, orders,
+     * shipments or shipment-tracking-events. X-Export-Watermark is the last id included; pass it
+     * back as sinceId for the next incremental export
+     */
+    @GetMapping("/export/arrow")
+    public WebAsyncTask<ResponseEntity<?>> exportArrow(
+            @RequestParam String dataType,
+            @RequestParam(required = false) Long sinceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            if (!columnarExportService.supports(dataType)) {
+                return ResponseEntity.badRequest().body(ApiResponse.error(
+                        "Unknown data type: " + dataType + ", expected one of " + columnarExportService.dataTypes()));
+            }
+
+            long watermark = columnarExportService.watermark(dataType);
+            String filename = "farmchainx-" + dataType + "-" + LocalDate.now() + ".arrows";
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            response.setHeader("X-Export-Watermark", Long.toString(watermark));
+            response.setContentType(ColumnarExportService.CONTENT_TYPE);
+            columnarExportService.export(dataType, sinceId, since, watermark, response.getOutputStream());
+            // Written directly to the response
+            return null;
+        });
+    }
+
+    /**
+     * Streams a full dataset as CSV or NDJSON, optionally gzip-compressed.
+     * Kept at /export/csv?dataType=... for existing callers. Runs as its own
+     * async task so only exports get the long reports.export.timeout-ms
+     */
+    @GetMapping("/export/{format}")
+    public WebAsyncTask<ResponseEntity<?>> exportData(@PathVariable String format,
+                                                      @RequestParam String dataType,
+                                                      @RequestParam(defaultValue = "false") boolean gzip,
+                                                      HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            ExportFormat exportFormat;
+            try {
+                exportFormat = ExportFormat.valueOf(format.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("Unsupported export format: " + format));
+            }
+            if (!reportExportService.supports(dataType)) {
+                return ResponseEntity.badRequest().body(ApiResponse.error(
+                        "Unknown data type: " + dataType + ", expected one of " + reportExportService.dataTypes()));
+            }
+
+            String filename = "farmchainx-" + dataType + "-" + LocalDate.now() + "." + exportFormat.getExtension()
+                    + (gzip ? ".gz" : "");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+            reportExportService.export(dataType, exportFormat, gzip, response.getOutputStream());
+            // Written directly to the response
+            return null;
+        });
     }
 }
@@ -0,0 +1,66 @@
+package com.farmchainx.backend.dto;
+
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.enums.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, immutable marketplace view of a crop.
+ * Built with a JPQL/criteria constructor expression, so only these columns
+ * are selected and no entity or owner proxy is involved.
+ */
+public class CropView {
+
+    private final Long id;
+    private final String cropName;
+    private final Double quantity;
+    private final LocalDateTime harvestDate;
+    private final String location;
+    private final String certificateRef;
+    private final String blockchainHash;
+    private final String ownerEmail;
+    private final Role ownerRole;
+    private final CropState cropState;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public CropView(Long id,
+                          String cropName,
+                          Double quantity,
+                          LocalDateTime harvestDate,
+                          String location,
+                          String certificateRef,
+                          String blockchainHash,
+                          String ownerEmail,
+                          Role ownerRole,
+                          CropState cropState,
+                          LocalDateTime createdAt,
+                          LocalDateTime updatedAt) {
+        this.id = id;
+        this.cropName = cropName;
+        this.quantity = quantity;
+        this.harvestDate = harvestDate;
+        this.location = location;
+        this.certificateRef = certificateRef;
+        this.blockchainHash = blockchainHash;
+        this.ownerEmail = ownerEmail;
+        this.ownerRole = ownerRole;
+        this.cropState = cropState;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getCropName() { return cropName; }
+    public Double getQuantity() { return quantity; }
+    public LocalDateTime getHarvestDate() { return harvestDate; }
+    public String getLocation() { return location; }
+    public String getCertificateRef() { return certificateRef; }
+    public String getBlockchainHash() { return blockchainHash; }
+    public String getOwnerEmail() { return ownerEmail; }
+    public Role getOwnerRole() { return ownerRole; }
+    public CropState getCropState() { return cropState; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,58 @@
+package com.farmchainx.backend.dto;
+
+import com.farmchainx.backend.entity.BroadcastNotification;
+import com.farmchainx.backend.entity.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable notification row as returned to its recipient; also the unit
+ * kept in the per-user cache of recent notifications. broadcast marks a
+ * role-wide notification merged into the feed (its id is a broadcast id).
+ */
+public class NotificationView {
+
+    private final Long id;
+    private final String type;
+    private final String message;
+    private final String priority;
+    private final LocalDateTime createdAt;
+    private final boolean read;
+    private final boolean broadcast;
+
+    public NotificationView(Long id, String type, String message, String priority,
+                            LocalDateTime createdAt, boolean read) {
+        this(id, type, message, priority, createdAt, read, false);
+    }
+
+    public NotificationView(Long id, String type, String message, String priority,
+                            LocalDateTime createdAt, boolean read, boolean broadcast) {
+        this.id = id;
+        this.type = type;
+        this.message = message;
+        this.priority = priority;
+        this.createdAt = createdAt;
+        this.read = read;
+        this.broadcast = broadcast;
+    }
+
+    public static NotificationView of(Notification n) {
+        return new NotificationView(n.getId(), n.getType(), n.getMessage(), n.getPriority(), n.getCreatedAt(), n.isRead());
+    }
+
+    public static NotificationView of(BroadcastNotification b) {
+        return new NotificationView(b.getId(), "SYSTEM", b.getMessage(), b.getPriority(), b.getCreatedAt(), false, true);
+    }
+
+    public NotificationView asRead() {
+        return read ? this : new NotificationView(id, type, message, priority, createdAt, true, broadcast);
+    }
+
+    public Long getId() { return id; }
+    public String getType() { return type; }
+    public String getMessage() { return message; }
+    public String getPriority() { return priority; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public boolean isRead() { return read; }
+    public boolean isBroadcast() { return broadcast; }
+}
@@ -0,0 +1,56 @@
+package com.farmchainx.backend.dto;
+
+import com.farmchainx.backend.enums.OrderState;
+
+import java.util.List;
+
+/**
+ * Order count and value (offeredPrice * requestedQuantity) per OrderState
+ * for one side (buyer or seller) of a user's orders.
+ */
+public class OrderTotals {
+
+    private final long[] counts = new long[OrderState.values().length];
+    private final double[] amounts = new double[OrderState.values().length];
+
+    /**
+     * Rows of [OrderState, count, amount] as returned by the grouped queries
+     */
+    public static OrderTotals of(List<Object[]> rows) {
+        OrderTotals totals = new OrderTotals();
+        for (Object[] row : rows) {
+            int i = ((OrderState) row[0]).ordinal();
+            totals.counts[i] = ((Number) row[1]).longValue();
+            totals.amounts[i] = row[2] != null ? ((Number) row[2]).doubleValue() : 0.0;
+        }
+        return totals;
+    }
+
+    public void add(OrderState state, long count, double amount) {
+        counts[state.ordinal()] += count;
+        amounts[state.ordinal()] += amount;
+    }
+
+    public long count(OrderState state) {
+        return counts[state.ordinal()];
+    }
+
+    public double amount(OrderState state) {
+        return amounts[state.ordinal()];
+    }
+
+    public long total() {
+        long sum = 0;
+        for (long c : counts) {
+            sum += c;
+        }
+        return sum;
+    }
+
+    /**
+     * Orders that are neither completed nor cancelled
+     */
+    public long active() {
+        return total() - count(OrderState.COMPLETED) - count(OrderState.CANCELLED);
+    }
+}
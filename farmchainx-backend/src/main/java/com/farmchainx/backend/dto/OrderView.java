@@ -0,0 +1,100 @@
+package com.farmchainx.backend.dto;
+
+import com.farmchainx.backend.entity.Order;
+import com.farmchainx.backend.enums.OrderState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat order row for list endpoints: crop and parties are reduced to the
+ * few columns the UI shows, so serializing never touches a lazy association.
+ */
+public class OrderView {
+
+    private final Long id;
+    private final OrderState orderState;
+    private final Double requestedQuantity;
+    private final Double offeredPrice;
+    private final String deliveryAddress;
+    private final String notes;
+    private final String rejectionReason;
+    private final Long cropId;
+    private final String cropName;
+    private final String cropLocation;
+    private final String blockchainHash;
+    private final String buyerEmail;
+    private final String sellerEmail;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public OrderView(Long id,
+                     OrderState orderState,
+                     Double requestedQuantity,
+                     Double offeredPrice,
+                     String deliveryAddress,
+                     String notes,
+                     String rejectionReason,
+                     Long cropId,
+                     String cropName,
+                     String cropLocation,
+                     String blockchainHash,
+                     String buyerEmail,
+                     String sellerEmail,
+                     LocalDateTime createdAt,
+                     LocalDateTime updatedAt) {
+        this.id = id;
+        this.orderState = orderState;
+        this.requestedQuantity = requestedQuantity;
+        this.offeredPrice = offeredPrice;
+        this.deliveryAddress = deliveryAddress;
+        this.notes = notes;
+        this.rejectionReason = rejectionReason;
+        this.cropId = cropId;
+        this.cropName = cropName;
+        this.cropLocation = cropLocation;
+        this.blockchainHash = blockchainHash;
+        this.buyerEmail = buyerEmail;
+        this.sellerEmail = sellerEmail;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * For an order whose crop, buyer and seller are already loaded
+     */
+    public static OrderView from(Order order) {
+        return new OrderView(
+                order.getId(),
+                order.getOrderState(),
+                order.getRequestedQuantity(),
+                order.getOfferedPrice(),
+                order.getDeliveryAddress(),
+                order.getNotes(),
+                order.getRejectionReason(),
+                order.getCrop().getId(),
+                order.getCrop().getCropName(),
+                order.getCrop().getLocation(),
+                order.getCrop().getBlockchainHash(),
+                order.getBuyer().getEmail(),
+                order.getSeller().getEmail(),
+                order.getCreatedAt(),
+                order.getUpdatedAt()
+        );
+    }
+
+    public Long getId() { return id; }
+    public OrderState getOrderState() { return orderState; }
+    public Double getRequestedQuantity() { return requestedQuantity; }
+    public Double getOfferedPrice() { return offeredPrice; }
+    public String getDeliveryAddress() { return deliveryAddress; }
+    public String getNotes() { return notes; }
+    public String getRejectionReason() { return rejectionReason; }
+    public Long getCropId() { return cropId; }
+    public String getCropName() { return cropName; }
+    public String getCropLocation() { return cropLocation; }
+    public String getBlockchainHash() { return blockchainHash; }
+    public String getBuyerEmail() { return buyerEmail; }
+    public String getSellerEmail() { return sellerEmail; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,62 @@
+package com.farmchainx.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Activity totals of one rollup bucket, or of a whole window
+ */
+public class RollupPoint {
+
+    private final LocalDateTime bucketStart;
+    private final long cropsCreated;
+    private final long cropsListed;
+    private final long ordersPlaced;
+    private final long ordersCompleted;
+    private final long usersRegistered;
+    private final double orderValue;
+    private final long disputesRaised;
+    private final long disputesResolved;
+
+    public RollupPoint(LocalDateTime bucketStart, Long cropsCreated, Long cropsListed, Long ordersPlaced,
+                       Long ordersCompleted, Long usersRegistered, Double orderValue,
+                       Long disputesRaised, Long disputesResolved) {
+        this.bucketStart = bucketStart;
+        this.cropsCreated = cropsCreated != null ? cropsCreated : 0;
+        this.cropsListed = cropsListed != null ? cropsListed : 0;
+        this.ordersPlaced = ordersPlaced != null ? ordersPlaced : 0;
+        this.ordersCompleted = ordersCompleted != null ? ordersCompleted : 0;
+        this.usersRegistered = usersRegistered != null ? usersRegistered : 0;
+        this.orderValue = orderValue != null ? orderValue : 0.0;
+        this.disputesRaised = disputesRaised != null ? disputesRaised : 0;
+        this.disputesResolved = disputesResolved != null ? disputesResolved : 0;
+    }
+
+    public static RollupPoint empty(LocalDateTime bucketStart) {
+        return new RollupPoint(bucketStart, 0L, 0L, 0L, 0L, 0L, 0.0, 0L, 0L);
+    }
+
+    /**
+     * Sum of both, keeping this bucket start
+     */
+    public RollupPoint plus(RollupPoint other) {
+        return new RollupPoint(bucketStart,
+                cropsCreated + other.cropsCreated,
+                cropsListed + other.cropsListed,
+                ordersPlaced + other.ordersPlaced,
+                ordersCompleted + other.ordersCompleted,
+                usersRegistered + other.usersRegistered,
+                orderValue + other.orderValue,
+                disputesRaised + other.disputesRaised,
+                disputesResolved + other.disputesResolved);
+    }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public long getCropsCreated() { return cropsCreated; }
+    public long getCropsListed() { return cropsListed; }
+    public long getOrdersPlaced() { return ordersPlaced; }
+    public long getOrdersCompleted() { return ordersCompleted; }
+    public long getUsersRegistered() { return usersRegistered; }
+    public double getOrderValue() { return orderValue; }
+    public long getDisputesRaised() { return disputesRaised; }
+    public long getDisputesResolved() { return disputesResolved; }
+}
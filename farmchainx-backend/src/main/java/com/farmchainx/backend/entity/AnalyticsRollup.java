@@ -0,0 +1,73 @@
+package com.farmchainx.backend.entity;
+
+import com.farmchainx.backend.enums.RollupGranularity;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated activity for one time bucket, region (crop location) and crop name.
+ * User registrations have no region/crop and are stored with empty strings.
+ * Written only through native upserts and batch backfills.
+ */
+@Entity
+@Table(name = "analytics_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollups_bucket", columnNames = {"granularity", "bucket_start", "region", "crop_name"})
+})
+public class AnalyticsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private String region;
+
+    @Column(name = "crop_name", nullable = false)
+    private String cropName;
+
+    @Column(name = "crops_created", nullable = false)
+    private long cropsCreated;
+
+    @Column(name = "crops_listed", nullable = false)
+    private long cropsListed;
+
+    @Column(name = "orders_placed", nullable = false)
+    private long ordersPlaced;
+
+    @Column(name = "orders_completed", nullable = false)
+    private long ordersCompleted;
+
+    @Column(name = "users_registered", nullable = false)
+    private long usersRegistered;
+
+    @Column(name = "order_value", nullable = false)
+    private double orderValue;
+
+    @Column(name = "disputes_raised", nullable = false)
+    private long disputesRaised;
+
+    @Column(name = "disputes_resolved", nullable = false)
+    private long disputesResolved;
+
+    public Long getId() { return id; }
+    public RollupGranularity getGranularity() { return granularity; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public String getRegion() { return region; }
+    public String getCropName() { return cropName; }
+    public long getCropsCreated() { return cropsCreated; }
+    public long getCropsListed() { return cropsListed; }
+    public long getOrdersPlaced() { return ordersPlaced; }
+    public long getOrdersCompleted() { return ordersCompleted; }
+    public long getUsersRegistered() { return usersRegistered; }
+    public double getOrderValue() { return orderValue; }
+    public long getDisputesRaised() { return disputesRaised; }
+    public long getDisputesResolved() { return disputesResolved; }
+}
@@ -0,0 +1,54 @@
+package com.farmchainx.backend.entity;
+
+import com.farmchainx.backend.enums.SketchMetric;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized, mergeable sketch of one day's orders for a region (crop
+ * location) and crop name. Ranges are answered by merging the daily rows.
+ */
+@Entity
+@Table(name = "analytics_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sketches_bucket", columnNames = {"day", "region", "crop_name", "metric"})
+})
+public class AnalyticsSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String region;
+
+    @Column(name = "crop_name", nullable = false)
+    private String cropName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SketchMetric metric;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Long getId() { return id; }
+    public LocalDate getDay() { return day; }
+    public String getRegion() { return region; }
+    public String getCropName() { return cropName; }
+    public SketchMetric getMetric() { return metric; }
+    public byte[] getSketch() { return sketch; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,64 @@
+package com.farmchainx.backend.entity;
+
+import com.farmchainx.backend.enums.Role;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * System notification for every user of a role (or everyone when
+ * targetRole is null), stored once and merged into each recipient's feed
+ * when it is read. A materialized broadcast was instead copied into
+ * notifications, one row per recipient, and is not merged.
+ */
+@Entity
+@Table(name = "broadcast_notifications", indexes = {
+        @Index(name = "idx_broadcasts_role_created", columnList = "target_role, created_at")
+})
+public class BroadcastNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_role", length = 20)
+    private Role targetRole;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(nullable = false, length = 16)
+    private String priority;
+
+    @Column(nullable = false)
+    private boolean materialized;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected BroadcastNotification() {
+    }
+
+    public BroadcastNotification(Role targetRole, String message, String priority, boolean materialized) {
+        this.targetRole = targetRole;
+        this.message = message;
+        this.priority = priority;
+        this.materialized = materialized;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public Role getTargetRole() { return targetRole; }
+    public String getMessage() { return message; }
+    public String getPriority() { return priority; }
+    public boolean isMaterialized() { return materialized; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    /**
+     * Whether a user of this role receives it
+     */
+    public boolean targets(Role role) {
+        return targetRole == null || targetRole == role;
+    }
+}
@@ -8,7 +8,13 @@ import com.farmchainx.backend.enums.Role;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "crops")
+@Table(name = "crops", indexes = {
+        // Marketplace browsing: filter by state, keyset order on (createdAt, id)
+        @Index(name = "idx_crops_state_created_id", columnList = "crop_state, created_at, id"),
+        @Index(name = "idx_crops_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_crops_name", columnList = "crop_name"),
+        @Index(name = "idx_crops_location", columnList = "location")
+})
 public class Crop {
 
     @Id
@@ -0,0 +1,66 @@
+package com.farmchainx.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification delivered to one user. Looked up by recipient email, which
+ * is what every authenticated request carries; user_id only ties the row
+ * to the account so it is removed with it.
+ */
+@Entity
+@Table(name = "notifications", indexes = {
+        // Unread listing and counts: (email, read) prefix, keyset order on (createdAt, id)
+        @Index(name = "idx_notifications_email_read_created", columnList = "user_email, is_read, created_at"),
+        @Index(name = "idx_notifications_email_created", columnList = "user_email, created_at")
+})
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(nullable = false, length = 16)
+    private String priority;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    protected Notification() {
+    }
+
+    public Notification(Long userId, String userEmail, String type, String message, String priority,
+                        LocalDateTime createdAt) {
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.type = type;
+        this.message = message;
+        this.priority = priority;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getUserEmail() { return userEmail; }
+    public String getType() { return type; }
+    public String getMessage() { return message; }
+    public String getPriority() { return priority; }
+    public boolean isRead() { return read; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,45 @@
+package com.farmchainx.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user notification bookkeeping: the unread count, kept in step with
+ * every insert and read, and the "mark all read" watermark. A notification
+ * created at or before readAllBefore counts as read whatever its own flag.
+ * Broadcasts have no per-user rows; one created at or before either
+ * watermark counts as read. unreadCount does not include them.
+ * Written only through native upserts and single-row updates.
+ */
+@Entity
+@Table(name = "notification_read_state")
+public class NotificationReadState {
+
+    @Id
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    @Column(name = "read_all_before")
+    private LocalDateTime readAllBefore;
+
+    @Column(name = "broadcasts_read_before")
+    private LocalDateTime broadcastsReadBefore;
+
+    public String getUserEmail() { return userEmail; }
+    public long getUnreadCount() { return unreadCount; }
+    public LocalDateTime getReadAllBefore() { return readAllBefore; }
+    public LocalDateTime getBroadcastsReadBefore() { return broadcastsReadBefore; }
+
+    /**
+     * Broadcasts created at or before this are read
+     */
+    public LocalDateTime broadcastWatermark() {
+        if (readAllBefore == null) return broadcastsReadBefore;
+        if (broadcastsReadBefore == null) return readAllBefore;
+        return readAllBefore.isAfter(broadcastsReadBefore) ? readAllBefore : broadcastsReadBefore;
+    }
+}
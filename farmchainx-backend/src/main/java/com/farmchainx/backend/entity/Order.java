@@ -6,7 +6,11 @@ import com.farmchainx.backend.enums.OrderState;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Dashboards: a user's most recent purchases / sales
+        @Index(name = "idx_orders_buyer_created", columnList = "buyer_id, created_at"),
+        @Index(name = "idx_orders_seller_created", columnList = "seller_id, created_at")
+})
 public class Order {
 
     @Id
@@ -0,0 +1,28 @@
+package com.farmchainx.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * One row per (seller, buyer) pair that has ever ordered; backs the
+ * "CUSTOMERS" dashboard counter. Written only through native inserts.
+ */
+@Entity
+@Table(name = "seller_customers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_seller_customers_pair", columnNames = {"seller_id", "buyer_id"})
+})
+public class SellerCustomer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "buyer_id", nullable = false)
+    private Long buyerId;
+
+    public Long getId() { return id; }
+    public Long getSellerId() { return sellerId; }
+    public Long getBuyerId() { return buyerId; }
+}
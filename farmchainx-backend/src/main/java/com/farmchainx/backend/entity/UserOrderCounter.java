@@ -0,0 +1,37 @@
+package com.farmchainx.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Materialized dashboard counter: number and value of a user's orders per
+ * side and state ("BUYER_PLACED", "SELLER_COMPLETED", ...), plus "CUSTOMERS"
+ * for distinct buyers served. Written only through native upserts.
+ */
+@Entity
+@Table(name = "user_order_counters", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_order_counters_user_key", columnNames = {"user_id", "counter_key"})
+})
+public class UserOrderCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "counter_key", nullable = false, length = 32)
+    private String counterKey;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private double amount;
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getCounterKey() { return counterKey; }
+    public long getOrderCount() { return orderCount; }
+    public double getAmount() { return amount; }
+}
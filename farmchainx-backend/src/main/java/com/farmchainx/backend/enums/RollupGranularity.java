@@ -0,0 +1,38 @@
+package com.farmchainx.backend.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of the analytics rollups
+ */
+public enum RollupGranularity {
+    HOUR, DAY, MONTH;
+
+    public LocalDateTime bucketOf(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime next(LocalDateTime bucket) {
+        return switch (this) {
+            case HOUR -> bucket.plusHours(1);
+            case DAY -> bucket.plusDays(1);
+            case MONTH -> bucket.plusMonths(1);
+        };
+    }
+
+    /**
+     * MySQL expression truncating a DATETIME column to this bucket
+     */
+    public String sqlBucket(String column) {
+        return switch (this) {
+            case HOUR -> "DATE_FORMAT(" + column + ", '%Y-%m-%d %H:00:00')";
+            case DAY -> "DATE(" + column + ")";
+            case MONTH -> "DATE_FORMAT(" + column + ", '%Y-%m-01')";
+        };
+    }
+}
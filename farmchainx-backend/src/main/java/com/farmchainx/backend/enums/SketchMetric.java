@@ -0,0 +1,9 @@
+package com.farmchainx.backend.enums;
+
+/**
+ * What an analytics sketch summarizes: distinct buyers (HyperLogLog) or the
+ * distribution of order prices / quantities (QuantileSketch)
+ */
+public enum SketchMetric {
+    BUYERS, PRICE, QUANTITY
+}
@@ -0,0 +1,36 @@
+package com.farmchainx.backend.event;
+
+import com.farmchainx.backend.enums.CropState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a crop is created or changes state.
+ * Carries the searchable fields so listeners don't need to reload the crop.
+ */
+public class CropChangedEvent {
+
+    private final Long cropId;
+    private final String cropName;
+    private final String location;
+    private final CropState fromState;
+    private final CropState toState;
+    private final LocalDateTime createdAt;
+
+    public CropChangedEvent(Long cropId, String cropName, String location, CropState fromState, CropState toState,
+                            LocalDateTime createdAt) {
+        this.cropId = cropId;
+        this.cropName = cropName;
+        this.location = location;
+        this.fromState = fromState;
+        this.toState = toState;
+        this.createdAt = createdAt;
+    }
+
+    public Long getCropId() { return cropId; }
+    public String getCropName() { return cropName; }
+    public String getLocation() { return location; }
+    public CropState getFromState() { return fromState; }
+    public CropState getToState() { return toState; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
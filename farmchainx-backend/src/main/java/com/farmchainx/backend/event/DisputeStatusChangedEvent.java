@@ -0,0 +1,45 @@
+package com.farmchainx.backend.event;
+
+import com.farmchainx.backend.entity.Dispute;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transaction when a dispute is raised or changes status.
+ * fromStatus is null for a new dispute.
+ */
+public class DisputeStatusChangedEvent {
+
+    private final Long disputeId;
+    private final String fromStatus;
+    private final String toStatus;
+    private final String cropName;
+    private final String region;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime resolvedAt;
+
+    public DisputeStatusChangedEvent(Long disputeId, String fromStatus, String toStatus, String cropName, String region,
+                                     LocalDateTime createdAt, LocalDateTime resolvedAt) {
+        this.disputeId = disputeId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.cropName = cropName;
+        this.region = region;
+        this.createdAt = createdAt;
+        this.resolvedAt = resolvedAt;
+    }
+
+    public static DisputeStatusChangedEvent of(Dispute dispute, String fromStatus) {
+        return new DisputeStatusChangedEvent(dispute.getId(), fromStatus, dispute.getStatus(),
+                dispute.getCrop().getCropName(), dispute.getCrop().getLocation(),
+                dispute.getCreatedAt(), dispute.getResolvedAt());
+    }
+
+    public Long getDisputeId() { return disputeId; }
+    public String getFromStatus() { return fromStatus; }
+    public String getToStatus() { return toStatus; }
+    public String getCropName() { return cropName; }
+    public String getRegion() { return region; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getResolvedAt() { return resolvedAt; }
+}
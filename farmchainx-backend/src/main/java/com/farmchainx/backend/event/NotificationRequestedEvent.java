@@ -0,0 +1,40 @@
+package com.farmchainx.backend.event;
+
+import com.farmchainx.backend.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification to store for one user. Published inside the business
+ * transaction; the row is written by NotificationDispatcher after commit.
+ */
+public class NotificationRequestedEvent {
+
+    private final Long userId;
+    private final String userEmail;
+    private final String type;
+    private final String message;
+    private final String priority;
+    private final LocalDateTime createdAt;
+
+    public NotificationRequestedEvent(Long userId, String userEmail, String type, String message, String priority,
+                                      LocalDateTime createdAt) {
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.type = type;
+        this.message = message;
+        this.priority = priority;
+        this.createdAt = createdAt;
+    }
+
+    public static NotificationRequestedEvent of(User user, String type, String message, String priority) {
+        return new NotificationRequestedEvent(user.getId(), user.getEmail(), type, message, priority, LocalDateTime.now());
+    }
+
+    public Long getUserId() { return userId; }
+    public String getUserEmail() { return userEmail; }
+    public String getType() { return type; }
+    public String getMessage() { return message; }
+    public String getPriority() { return priority; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
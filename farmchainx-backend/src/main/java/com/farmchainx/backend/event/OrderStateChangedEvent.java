@@ -0,0 +1,64 @@
+package com.farmchainx.backend.event;
+
+import com.farmchainx.backend.entity.Order;
+import com.farmchainx.backend.enums.OrderState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transaction whenever an order is created or changes state.
+ * fromState is null for a new order.
+ */
+public class OrderStateChangedEvent {
+
+    private final Long orderId;
+    private final Long buyerId;
+    private final Long sellerId;
+    private final OrderState fromState;
+    private final OrderState toState;
+    private final double amount;
+    private final String cropName;
+    private final String region;
+    private final Double price;
+    private final Double quantity;
+    private final LocalDateTime createdAt;
+
+    public OrderStateChangedEvent(Long orderId, Long buyerId, Long sellerId,
+                                  OrderState fromState, OrderState toState, double amount,
+                                  String cropName, String region, Double price, Double quantity,
+                                  LocalDateTime createdAt) {
+        this.orderId = orderId;
+        this.buyerId = buyerId;
+        this.sellerId = sellerId;
+        this.fromState = fromState;
+        this.toState = toState;
+        this.amount = amount;
+        this.cropName = cropName;
+        this.region = region;
+        this.price = price;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+    }
+
+    public static OrderStateChangedEvent of(Order order, OrderState fromState) {
+        double amount = order.getOfferedPrice() != null && order.getRequestedQuantity() != null
+                ? order.getOfferedPrice() * order.getRequestedQuantity()
+                : 0.0;
+        return new OrderStateChangedEvent(order.getId(), order.getBuyer().getId(), order.getSeller().getId(),
+                fromState, order.getOrderState(), amount,
+                order.getCrop().getCropName(), order.getCrop().getLocation(),
+                order.getOfferedPrice(), order.getRequestedQuantity(), order.getCreatedAt());
+    }
+
+    public Long getOrderId() { return orderId; }
+    public Long getBuyerId() { return buyerId; }
+    public Long getSellerId() { return sellerId; }
+    public OrderState getFromState() { return fromState; }
+    public OrderState getToState() { return toState; }
+    public double getAmount() { return amount; }
+    public String getCropName() { return cropName; }
+    public String getRegion() { return region; }
+    public Double getPrice() { return price; }
+    public Double getQuantity() { return quantity; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
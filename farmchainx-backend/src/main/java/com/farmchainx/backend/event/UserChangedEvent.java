@@ -0,0 +1,36 @@
+package com.farmchainx.backend.event;
+
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a user registers (newUser = true) or an admin changes a user's status.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final String email;
+    private final Role role;
+    private final Status status;
+    private final boolean newUser;
+    private final LocalDateTime createdAt;
+
+    public UserChangedEvent(Long userId, String email, Role role, Status status, boolean newUser,
+                            LocalDateTime createdAt) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.status = status;
+        this.newUser = newUser;
+        this.createdAt = createdAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public Role getRole() { return role; }
+    public Status getStatus() { return status; }
+    public boolean isNewUser() { return newUser; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,62 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.dto.RollupPoint;
+import com.farmchainx.backend.entity.AnalyticsRollup;
+import com.farmchainx.backend.enums.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsRollup, Long> {
+
+    // Adds to the bucket, creating it on first use (MySQL)
+    @Modifying
+    @Query(value = "INSERT INTO analytics_rollups (granularity, bucket_start, region, crop_name, " +
+                   "crops_created, crops_listed, orders_placed, orders_completed, users_registered, order_value, " +
+                   "disputes_raised, disputes_resolved) " +
+                   "VALUES (:granularity, :bucket, :region, :cropName, :crops, :listed, :placed, :completed, :users, :value, " +
+                   ":raised, :resolved) " +
+                   "ON DUPLICATE KEY UPDATE crops_created = crops_created + VALUES(crops_created), " +
+                   "crops_listed = crops_listed + VALUES(crops_listed), " +
+                   "orders_placed = orders_placed + VALUES(orders_placed), " +
+                   "orders_completed = orders_completed + VALUES(orders_completed), " +
+                   "users_registered = users_registered + VALUES(users_registered), " +
+                   "order_value = order_value + VALUES(order_value), " +
+                   "disputes_raised = disputes_raised + VALUES(disputes_raised), " +
+                   "disputes_resolved = disputes_resolved + VALUES(disputes_resolved)",
+           nativeQuery = true)
+    void add(@Param("granularity") String granularity, @Param("bucket") LocalDateTime bucket,
+             @Param("region") String region, @Param("cropName") String cropName,
+             @Param("crops") long crops, @Param("listed") long listed, @Param("placed") long placed,
+             @Param("completed") long completed, @Param("users") long users, @Param("value") double value,
+             @Param("raised") long raised, @Param("resolved") long resolved);
+
+    // Buckets in [from, to), summed over region / crop unless filtered
+    @Query("SELECT new com.farmchainx.backend.dto.RollupPoint(r.bucketStart, SUM(r.cropsCreated), SUM(r.cropsListed), " +
+           "SUM(r.ordersPlaced), SUM(r.ordersCompleted), SUM(r.usersRegistered), SUM(r.orderValue), " +
+           "SUM(r.disputesRaised), SUM(r.disputesResolved)) " +
+           "FROM AnalyticsRollup r WHERE r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "AND (:region IS NULL OR r.region = :region) AND (:cropName IS NULL OR r.cropName = :cropName) " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<RollupPoint> findSeries(@Param("granularity") RollupGranularity granularity,
+                                 @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                 @Param("region") String region, @Param("cropName") String cropName);
+
+    // Everything in [from, to) as one point; bucketStart is the first non-empty bucket
+    @Query("SELECT new com.farmchainx.backend.dto.RollupPoint(MIN(r.bucketStart), SUM(r.cropsCreated), SUM(r.cropsListed), " +
+           "SUM(r.ordersPlaced), SUM(r.ordersCompleted), SUM(r.usersRegistered), SUM(r.orderValue), " +
+           "SUM(r.disputesRaised), SUM(r.disputesResolved)) " +
+           "FROM AnalyticsRollup r WHERE r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    RollupPoint sumBetween(@Param("granularity") RollupGranularity granularity,
+                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteBucketsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
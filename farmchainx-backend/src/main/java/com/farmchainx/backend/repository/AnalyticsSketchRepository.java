@@ -0,0 +1,44 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.AnalyticsSketch;
+import com.farmchainx.backend.enums.SketchMetric;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface AnalyticsSketchRepository extends JpaRepository<AnalyticsSketch, Long> {
+
+    // Creates the row with an empty sketch if it is missing, so it can be locked and merged (MySQL)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO analytics_sketches (day, region, crop_name, metric, sketch, updated_at) " +
+                   "VALUES (:day, :region, :cropName, :metric, :sketch, NOW())",
+           nativeQuery = true)
+    void insertIfAbsent(@Param("day") LocalDate day, @Param("region") String region,
+                        @Param("cropName") String cropName, @Param("metric") String metric,
+                        @Param("sketch") byte[] sketch);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AnalyticsSketch s WHERE s.day = :day AND s.region = :region " +
+           "AND s.cropName = :cropName AND s.metric = :metric")
+    Optional<AnalyticsSketch> findForUpdate(@Param("day") LocalDate day, @Param("region") String region,
+                                            @Param("cropName") String cropName, @Param("metric") SketchMetric metric);
+
+    // Days in [from, to), every region / crop unless filtered
+    @Query("SELECT s.sketch FROM AnalyticsSketch s WHERE s.metric = :metric " +
+           "AND s.day >= :from AND s.day < :to " +
+           "AND (:region IS NULL OR s.region = :region) AND (:cropName IS NULL OR s.cropName = :cropName)")
+    List<byte[]> findSketches(@Param("metric") SketchMetric metric,
+                              @Param("from") LocalDate from, @Param("to") LocalDate to,
+                              @Param("region") String region, @Param("cropName") String cropName);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsSketch s WHERE s.day = :day")
+    int deleteByDay(@Param("day") LocalDate day);
+}
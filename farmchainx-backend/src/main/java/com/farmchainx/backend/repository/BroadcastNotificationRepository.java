@@ -0,0 +1,31 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.BroadcastNotification;
+import com.farmchainx.backend.enums.Role;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BroadcastNotificationRepository extends JpaRepository<BroadcastNotification, Long> {
+
+    // Broadcasts merged into feeds: targeted at the role or at everyone, not materialized
+    String FOR_ROLE = "FROM BroadcastNotification b WHERE (b.targetRole IS NULL OR b.targetRole = :role) " +
+            "AND b.materialized = false ";
+
+    @Query("SELECT b " + FOR_ROLE +
+           "AND (:afterCreatedAt IS NULL OR b.createdAt < :afterCreatedAt " +
+           "OR (b.createdAt = :afterCreatedAt AND b.id < :afterId)) ORDER BY b.createdAt DESC, b.id DESC")
+    List<BroadcastNotification> findPage(@Param("role") Role role,
+                                         @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                         @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(b) " + FOR_ROLE + "AND (:after IS NULL OR b.createdAt > :after)")
+    long countNewer(@Param("role") Role role, @Param("after") LocalDateTime after);
+
+    @Query("SELECT b FROM BroadcastNotification b WHERE b.materialized = false ORDER BY b.createdAt DESC, b.id DESC")
+    List<BroadcastNotification> findLatest(Pageable pageable);
+}
@@ -13,4 +13,7 @@ public interface CropHistoryRepository extends JpaRepository<CropHistory, Long>
 
     @Query("SELECT COUNT(h) FROM CropHistory h WHERE h.action = 'OWNERSHIP_TRANSFER'")
     Long countOwnershipTransfers();
+
+    @Query("SELECT h.action, COUNT(h) FROM CropHistory h GROUP BY h.action")
+    List<Object[]> countGroupedByAction();
 }
@@ -1,16 +1,20 @@
 package com.farmchainx.backend.repository;
 
+import com.farmchainx.backend.dto.CropView;
 import com.farmchainx.backend.entity.Crop;
 import com.farmchainx.backend.enums.CropState;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface CropRepository extends JpaRepository<Crop, Long> {
+public interface CropRepository extends JpaRepository<Crop, Long>, JpaSpecificationExecutor<Crop>, CropRepositoryCustom {
     @Query("SELECT c FROM Crop c WHERE c.currentOwner.email = :email")
     List<Crop> findByCurrentOwnerEmail(@Param("email") String email);
 
@@ -18,6 +22,35 @@ public interface CropRepository extends JpaRepository<Crop, Long> {
     long countByCropState(CropState cropState);
     List<Crop> findByCropState(CropState cropState);
 
+    String VIEW = "SELECT new com.farmchainx.backend.dto.CropView(" +
+            "c.id, c.cropName, c.quantity, c.harvestDate, c.location, c.certificateRef, c.blockchainHash, " +
+            "o.email, c.currentOwnerRole, c.cropState, c.createdAt, c.updatedAt) " +
+            "FROM Crop c JOIN c.currentOwner o ";
+    String LISTED_VIEW = VIEW + "WHERE c.cropState = com.farmchainx.backend.enums.CropState.LISTED";
+
+    @Query(LISTED_VIEW)
+    List<CropView> findListedViews();
+
+    @Query(LISTED_VIEW + " AND c.id = :id")
+    Optional<CropView> findListedViewById(@Param("id") Long id);
+
+    @Query(VIEW + "WHERE c.id IN :ids")
+    List<CropView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(VIEW + "WHERE o.email = :email ORDER BY c.createdAt DESC")
+    List<CropView> findViewsByOwnerEmail(@Param("email") String email);
+
+    @Query(VIEW + "WHERE o.email = :email ORDER BY c.createdAt DESC")
+    List<CropView> findViewsByOwnerEmail(@Param("email") String email, Pageable pageable);
+
+    long countByCurrentOwnerEmail(String email);
+
+    @Query(VIEW + "WHERE o.email = :email AND c.cropState = :state ORDER BY c.createdAt DESC")
+    List<CropView> findViewsByOwnerEmailAndState(@Param("email") String email, @Param("state") CropState state);
+
+    @Query("SELECT c.cropState, COUNT(c) FROM Crop c GROUP BY c.cropState")
+    List<Object[]> countGroupedByState();
+
     // New: aggregate by region and crop name with counts and total quantity
     @Query("SELECT c.location AS region, c.cropName AS cropName, COUNT(c) AS cnt, SUM(c.quantity) AS totalQty " +
            "FROM Crop c WHERE c.createdAt BETWEEN :start AND :end GROUP BY c.location, c.cropName")
@@ -0,0 +1,22 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.dto.CropView;
+import com.farmchainx.backend.entity.Crop;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface CropRepositoryCustom {
+
+    /**
+     * Filtered page of crop views; selects only the CropView columns
+     */
+    Page<CropView> findViewPage(Specification<Crop> spec, Pageable pageable);
+
+    /**
+     * Seek page ordered by createdAt DESC, id DESC, without a count query
+     */
+    List<CropView> findSeekPage(Specification<Crop> spec, int limit);
+}
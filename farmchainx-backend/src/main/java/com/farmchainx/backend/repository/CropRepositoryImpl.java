@@ -0,0 +1,95 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.dto.CropView;
+import com.farmchainx.backend.entity.Crop;
+import com.farmchainx.backend.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Custom fragment of CropRepository (picked up by Spring Data via the Impl suffix)
+ */
+public class CropRepositoryImpl implements CropRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<CropView> findViewPage(Specification<Crop> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CropView> query = cb.createQuery(CropView.class);
+        Root<Crop> root = query.from(Crop.class);
+
+        selectView(query, root, cb);
+        applySpec(spec, query, root, cb);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        List<CropView> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<CropView> findSeekPage(Specification<Crop> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CropView> query = cb.createQuery(CropView.class);
+        Root<Crop> root = query.from(Crop.class);
+
+        selectView(query, root, cb);
+        applySpec(spec, query, root, cb);
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private long count(Specification<Crop> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Crop> root = query.from(Crop.class);
+
+        query.select(cb.count(root));
+        applySpec(spec, query, root, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Same columns, same order as the CropView constructor
+    private void selectView(CriteriaQuery<CropView> query, Root<Crop> root, CriteriaBuilder cb) {
+        Join<Crop, User> owner = root.join("currentOwner");
+        query.select(cb.construct(CropView.class,
+                root.get("id"),
+                root.get("cropName"),
+                root.get("quantity"),
+                root.get("harvestDate"),
+                root.get("location"),
+                root.get("certificateRef"),
+                root.get("blockchainHash"),
+                owner.get("email"),
+                root.get("currentOwnerRole"),
+                root.get("cropState"),
+                root.get("createdAt"),
+                root.get("updatedAt")
+        ));
+    }
+
+    private void applySpec(Specification<Crop> spec, CriteriaQuery<?> query, Root<Crop> root, CriteriaBuilder cb) {
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.Crop;
+import com.farmchainx.backend.enums.CropState;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reusable filters for marketplace crop queries.
+ * Name/location use prefix matching so the column indexes can be used.
+ */
+public final class CropSpecifications {
+
+    private CropSpecifications() {}
+
+    /**
+     * Combine all optional filters; null arguments are ignored
+     */
+    public static Specification<Crop> filter(CropState state, String cropName, String location,
+                                             LocalDateTime harvestFrom, LocalDateTime harvestTo,
+                                             Double minQuantity, Double maxQuantity) {
+        return Specification.where(hasState(state))
+                .and(nameStartsWith(cropName))
+                .and(locationStartsWith(location))
+                .and(harvestedBetween(harvestFrom, harvestTo))
+                .and(quantityBetween(minQuantity, maxQuantity));
+    }
+
+    public static Specification<Crop> hasState(CropState state) {
+        return (root, query, cb) -> state == null ? null : cb.equal(root.get("cropState"), state);
+    }
+
+    public static Specification<Crop> nameStartsWith(String cropName) {
+        return (root, query, cb) -> isBlank(cropName) ? null
+                : cb.like(root.get("cropName"), escapeLike(cropName.trim()) + "%", '\\');
+    }
+
+    public static Specification<Crop> locationStartsWith(String location) {
+        return (root, query, cb) -> isBlank(location) ? null
+                : cb.like(root.get("location"), escapeLike(location.trim()) + "%", '\\');
+    }
+
+    public static Specification<Crop> harvestedBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) return cb.between(root.get("harvestDate"), from, to);
+            if (from != null) return cb.greaterThanOrEqualTo(root.get("harvestDate"), from);
+            if (to != null) return cb.lessThanOrEqualTo(root.get("harvestDate"), to);
+            return null;
+        };
+    }
+
+    public static Specification<Crop> quantityBetween(Double min, Double max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) return cb.between(root.get("quantity"), min, max);
+            if (min != null) return cb.greaterThanOrEqualTo(root.get("quantity"), min);
+            if (max != null) return cb.lessThanOrEqualTo(root.get("quantity"), max);
+            return null;
+        };
+    }
+
+    /**
+     * Keyset (seek) predicate for ORDER BY createdAt DESC, id DESC:
+     * rows strictly after the (createdAt, id) cursor
+     */
+    public static Specification<Crop> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> {
+            if (createdAt == null || id == null) return null;
+            return cb.or(
+                    cb.lessThan(root.get("createdAt"), createdAt),
+                    cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id))
+            );
+        };
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -18,4 +18,7 @@ public interface DisputeRepository extends JpaRepository<Dispute, Long> {
 
     List<Dispute> findByRaisedBy(User user);
     long countByStatus(String status);
+
+    @Query("SELECT d.status, COUNT(d) FROM Dispute d GROUP BY d.status")
+    List<Object[]> countGroupedByStatus();
 }
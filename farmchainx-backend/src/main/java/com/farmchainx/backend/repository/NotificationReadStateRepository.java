@@ -0,0 +1,54 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.NotificationReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface NotificationReadStateRepository extends JpaRepository<NotificationReadState, String> {
+
+    // Counts one new notification unless "mark all read" already covers it (MySQL)
+    String COUNT_NEW = "ON DUPLICATE KEY UPDATE unread_count = unread_count + " +
+            "IF(read_all_before IS NULL OR read_all_before < :createdAt, 1, 0)";
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_state (user_email, unread_count) VALUES (:email, 1) " + COUNT_NEW,
+           nativeQuery = true)
+    void incrementUnread(@Param("email") String email, @Param("createdAt") LocalDateTime createdAt);
+
+    // First notification since the counters exist: start from the rows already there
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_state (user_email, unread_count) " +
+                   "SELECT :email, COUNT(*) FROM notifications WHERE user_email = :email AND is_read = false " + COUNT_NEW,
+           nativeQuery = true)
+    void initializeUnread(@Param("email") String email, @Param("createdAt") LocalDateTime createdAt);
+
+    // Users with no counter yet (notifications older than the counters)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_read_state (user_email, unread_count) " +
+                   "SELECT :email, COUNT(*) FROM notifications WHERE user_email = :email AND is_read = false",
+           nativeQuery = true)
+    void createIfAbsent(@Param("email") String email);
+
+    @Modifying
+    @Query(value = "UPDATE notification_read_state SET unread_count = GREATEST(unread_count - 1, 0) WHERE user_email = :email",
+           nativeQuery = true)
+    void decrementUnread(@Param("email") String email);
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_state (user_email, unread_count, read_all_before) VALUES (:email, 0, :before) " +
+                   "ON DUPLICATE KEY UPDATE unread_count = 0, read_all_before = VALUES(read_all_before)",
+           nativeQuery = true)
+    void markAllRead(@Param("email") String email, @Param("before") LocalDateTime before);
+
+    // Broadcasts are read up to a watermark that only moves forward
+    @Modifying
+    @Query(value = "INSERT INTO notification_read_state (user_email, unread_count, broadcasts_read_before) VALUES (:email, 0, :before) " +
+                   "ON DUPLICATE KEY UPDATE broadcasts_read_before = " +
+                   "GREATEST(COALESCE(broadcasts_read_before, VALUES(broadcasts_read_before)), VALUES(broadcasts_read_before))",
+           nativeQuery = true)
+    void markBroadcastsRead(@Param("email") String email, @Param("before") LocalDateTime before);
+}
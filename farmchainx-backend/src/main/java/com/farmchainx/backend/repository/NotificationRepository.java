@@ -0,0 +1,48 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.dto.NotificationView;
+import com.farmchainx.backend.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    String VIEW = "SELECT new com.farmchainx.backend.dto.NotificationView(" +
+            "n.id, n.type, n.message, n.priority, n.createdAt, n.read) FROM Notification n ";
+
+    // Newest first, strictly after the (createdAt, id) cursor when one is given
+    String AFTER_CURSOR = "AND (:afterCreatedAt IS NULL OR n.createdAt < :afterCreatedAt " +
+            "OR (n.createdAt = :afterCreatedAt AND n.id < :afterId)) ORDER BY n.createdAt DESC, n.id DESC";
+
+    @Query(VIEW + "WHERE n.userEmail = :email " + AFTER_CURSOR)
+    List<NotificationView> findPage(@Param("email") String email,
+                                    @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    // Rows at or before the "mark all read" watermark count as read
+    @Query(VIEW + "WHERE n.userEmail = :email AND n.read = false " +
+           "AND (:readAllBefore IS NULL OR n.createdAt > :readAllBefore) " + AFTER_CURSOR)
+    List<NotificationView> findUnreadPage(@Param("email") String email,
+                                          @Param("readAllBefore") LocalDateTime readAllBefore,
+                                          @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                          @Param("afterId") Long afterId, Pageable pageable);
+
+    // Everything after a notification id, oldest first (stream resume)
+    @Query(VIEW + "WHERE n.userEmail = :email AND n.id > :afterId ORDER BY n.id")
+    List<NotificationView> findAfterId(@Param("email") String email, @Param("afterId") Long afterId, Pageable pageable);
+
+    boolean existsByIdAndUserEmail(Long id, String userEmail);
+
+    // Primary key lookup; returns 0 if the notification was already read
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.userEmail = :email AND n.read = false " +
+           "AND (:readAllBefore IS NULL OR n.createdAt > :readAllBefore)")
+    int markRead(@Param("email") String email, @Param("id") Long id,
+                 @Param("readAllBefore") LocalDateTime readAllBefore);
+}
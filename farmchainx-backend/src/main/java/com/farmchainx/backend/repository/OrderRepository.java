@@ -1,8 +1,11 @@
 package com.farmchainx.backend.repository;
 
+import com.farmchainx.backend.dto.OrderView;
 import com.farmchainx.backend.entity.Order;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.OrderState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +22,30 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByBuyerAndOrderStateOrSellerAndOrderState(User buyer1, OrderState state1, User seller, OrderState state2);
     long countByOrderState(OrderState orderState);
 
+    @Query("SELECT o.orderState, COUNT(o) FROM Order o GROUP BY o.orderState")
+    List<Object[]> countGroupedByState();
+
+    // Dashboards: most recent N with the associations they display fetched in the same query
+    @EntityGraph(attributePaths = {"crop", "seller"})
+    List<Order> findByBuyerOrderByCreatedAtDesc(User buyer, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"crop", "buyer"})
+    List<Order> findBySellerOrderByCreatedAtDesc(User seller, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"crop"})
+    List<Order> findByBuyerAndOrderStateOrderByCreatedAtDesc(User buyer, OrderState orderState, Pageable pageable);
+
+    String VIEW = "SELECT new com.farmchainx.backend.dto.OrderView(" +
+            "o.id, o.orderState, o.requestedQuantity, o.offeredPrice, o.deliveryAddress, o.notes, o.rejectionReason, " +
+            "c.id, c.cropName, c.location, c.blockchainHash, b.email, s.email, o.createdAt, o.updatedAt) " +
+            "FROM Order o JOIN o.crop c JOIN o.buyer b JOIN o.seller s ";
+
+    @Query(VIEW + "WHERE b.id = :userId OR s.id = :userId ORDER BY o.createdAt DESC")
+    List<OrderView> findViewsByParticipant(@Param("userId") Long userId);
+
+    @Query(VIEW + "WHERE (b.id = :userId OR s.id = :userId) AND o.orderState = :state ORDER BY o.createdAt DESC")
+    List<OrderView> findViewsByParticipantAndState(@Param("userId") Long userId, @Param("state") OrderState state);
+
     // New: aggregate orders by crop region (crop.location) with counts and total value
     @Query("SELECT c.location AS region, COUNT(o) AS cnt, SUM(COALESCE(o.offeredPrice * o.requestedQuantity, 0)) AS totalValue " +
            "FROM Order o JOIN o.crop c WHERE o.createdAt BETWEEN :start AND :end GROUP BY c.location")
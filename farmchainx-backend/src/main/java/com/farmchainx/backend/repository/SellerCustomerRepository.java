@@ -0,0 +1,28 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.SellerCustomer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SellerCustomerRepository extends JpaRepository<SellerCustomer, Long> {
+
+    // 1 when the pair is new, 0 when it was already recorded (MySQL)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO seller_customers (seller_id, buyer_id) VALUES (:sellerId, :buyerId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("sellerId") Long sellerId, @Param("buyerId") Long buyerId);
+
+    // Rebuild of one range of sellers from the orders table
+
+    @Modifying
+    @Query(value = "DELETE FROM seller_customers WHERE seller_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    void deleteSellers(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query(value = "INSERT INTO seller_customers (seller_id, buyer_id) " +
+                   "SELECT DISTINCT seller_id, buyer_id FROM orders WHERE seller_id BETWEEN :fromId AND :toId",
+           nativeQuery = true)
+    void insertSellers(@Param("fromId") long fromId, @Param("toId") long toId);
+}
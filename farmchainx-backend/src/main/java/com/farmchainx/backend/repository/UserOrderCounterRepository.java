@@ -0,0 +1,54 @@
+package com.farmchainx.backend.repository;
+
+import com.farmchainx.backend.entity.UserOrderCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface UserOrderCounterRepository extends JpaRepository<UserOrderCounter, Long> {
+
+    List<UserOrderCounter> findByUserId(Long userId);
+
+    // Atomic increment; creates the row on first use (MySQL)
+    @Modifying
+    @Query(value = "INSERT INTO user_order_counters (user_id, counter_key, order_count, amount) " +
+                   "VALUES (:userId, :key, :count, :amount) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), amount = amount + VALUES(amount)",
+           nativeQuery = true)
+    void increment(@Param("userId") Long userId, @Param("key") String key,
+                   @Param("count") long count, @Param("amount") double amount);
+
+    // Rebuild of one range of user ids from the orders table
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM users", nativeQuery = true)
+    long maxUserId();
+
+    @Modifying
+    @Query(value = "DELETE FROM user_order_counters WHERE user_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    void deleteCounters(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_order_counters (user_id, counter_key, order_count, amount) " +
+                   "SELECT buyer_id, CONCAT('BUYER_', order_state), COUNT(*), SUM(COALESCE(offered_price * requested_quantity, 0)) " +
+                   "FROM orders WHERE buyer_id BETWEEN :fromId AND :toId GROUP BY buyer_id, order_state",
+           nativeQuery = true)
+    void insertBuyerCounters(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_order_counters (user_id, counter_key, order_count, amount) " +
+                   "SELECT seller_id, CONCAT('SELLER_', order_state), COUNT(*), SUM(COALESCE(offered_price * requested_quantity, 0)) " +
+                   "FROM orders WHERE seller_id BETWEEN :fromId AND :toId GROUP BY seller_id, order_state",
+           nativeQuery = true)
+    void insertSellerCounters(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Needs seller_customers rebuilt for the same range first
+    @Modifying
+    @Query(value = "INSERT INTO user_order_counters (user_id, counter_key, order_count, amount) " +
+                   "SELECT seller_id, 'CUSTOMERS', COUNT(*), 0 FROM seller_customers " +
+                   "WHERE seller_id BETWEEN :fromId AND :toId GROUP BY seller_id",
+           nativeQuery = true)
+    void insertCustomerCounters(@Param("fromId") long fromId, @Param("toId") long toId);
+}
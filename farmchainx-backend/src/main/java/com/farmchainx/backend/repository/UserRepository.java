@@ -4,6 +4,7 @@ import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.enums.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 
 import java.time.LocalDateTime;
@@ -20,4 +21,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     long countByRoleAndStatus(Role role, Status status);
     long countByRoleAndCreatedAtBetween(Role role, LocalDateTime start, LocalDateTime end);
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT u.role, u.status, COUNT(u) FROM User u GROUP BY u.role, u.status")
+    List<Object[]> countGroupedByRoleAndStatus();
 }
\ No newline at end of file
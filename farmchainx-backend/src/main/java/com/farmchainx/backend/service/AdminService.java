@@ -1,14 +1,18 @@
 package com.farmchainx.backend.service;
 
+import com.farmchainx.backend.config.PrincipalCache;
+import com.farmchainx.backend.config.TokenRevocationRegistry;
 import com.farmchainx.backend.dto.UserDto;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.enums.Status;
+import com.farmchainx.backend.event.UserChangedEvent;
 import com.farmchainx.backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
@@ -18,11 +22,22 @@ public class AdminService {
     private final UserRepository userRepository;
     private final PermissionService permissionService;
     private final AuditService auditService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final CurrentUser currentUser;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AdminService(UserRepository userRepository, PermissionService permissionService, AuditService auditService) {
+    public AdminService(UserRepository userRepository, PermissionService permissionService,
+                        AuditService auditService, PrincipalCache principalCache,
+                        TokenRevocationRegistry revocationRegistry, CurrentUser currentUser,
+                        ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.permissionService = permissionService;
         this.auditService = auditService;
+        this.principalCache = principalCache;
+        this.revocationRegistry = revocationRegistry;
+        this.currentUser = currentUser;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<UserDto> getPendingUsers() {
@@ -41,6 +56,19 @@ public class AdminService {
         user.setStatus(status);
         userRepository.save(user);
         auditService.logAction("USER_STATUS_UPDATE", getCurrentUser(), "User ID: " + userId + ", New Status: " + status);
+
+        // Evict after commit; PrincipalCache drops entries loaded before the eviction.
+        // Existing tokens carry the old status claim, so stop trusting them too.
+        String email = user.getEmail();
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), email, user.getRole(), status, false,
+                user.getCreatedAt()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revocationRegistry.revokeAll(email);
+                principalCache.invalidate(email);
+            }
+        });
     }
 
     public List<UserDto> getUsersByRole(Role role) {
@@ -59,10 +87,7 @@ public class AdminService {
     }
 
     private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        return currentUser.get();
     }
 
     public List<UserDto> getAllUsers() {
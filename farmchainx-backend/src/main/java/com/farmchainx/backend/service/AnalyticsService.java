@@ -1,8 +1,10 @@
 package com.farmchainx.backend.service;
 
 import com.farmchainx.backend.dto.AnalyticsResponse;
+import com.farmchainx.backend.dto.RollupPoint;
 import com.farmchainx.backend.enums.CropState;
 import com.farmchainx.backend.enums.OrderState;
+import com.farmchainx.backend.enums.RollupGranularity;
 import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.enums.Status;
 import com.farmchainx.backend.repository.CropRepository;
@@ -10,12 +12,24 @@ import com.farmchainx.backend.repository.CropHistoryRepository;
 import com.farmchainx.backend.repository.OrderRepository;
 import com.farmchainx.backend.repository.UserRepository;
 import com.farmchainx.backend.repository.DisputeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,15 +40,32 @@ public class AnalyticsService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final DisputeRepository disputeRepository;
+    private final RollupService rollupService;
+    private final Executor analyticsExecutor;
+    private final long queryTimeoutMillis;
+    private final TransactionTemplate queryTransaction;
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("yyyy-MM");
 
     public AnalyticsService(CropRepository cropRepository, CropHistoryRepository cropHistoryRepository,
                            OrderRepository orderRepository, UserRepository userRepository,
-                           DisputeRepository disputeRepository) {
+                           DisputeRepository disputeRepository, RollupService rollupService,
+                           @Qualifier("analyticsExecutor") Executor analyticsExecutor,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${analytics.query.timeout-ms:5000}") long queryTimeoutMillis) {
         this.cropRepository = cropRepository;
         this.cropHistoryRepository = cropHistoryRepository;
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.disputeRepository = disputeRepository;
+        this.rollupService = rollupService;
+        this.analyticsExecutor = analyticsExecutor;
+        this.queryTimeoutMillis = queryTimeoutMillis;
+        // The transaction timeout becomes each statement's query timeout, so the database cancels it too
+        this.queryTransaction = new TransactionTemplate(transactionManager);
+        this.queryTransaction.setReadOnly(true);
+        this.queryTransaction.setTimeout((int) Math.max(1, (queryTimeoutMillis + 999) / 1000));
     }
 
     public Long getTotalCrops() {
@@ -69,22 +100,52 @@ public class AnalyticsService {
         return disputeRepository.count();
     }
 
+    /**
+     * All distributions in five grouped queries, issued concurrently.
+     * A query that fails or times out leaves its section empty (see AnalyticsSnapshot#getMissing)
+     */
+    public AnalyticsSnapshot snapshot() {
+        CompletableFuture<List<Object[]>> users = fetch("users", userRepository::countGroupedByRoleAndStatus);
+        CompletableFuture<List<Object[]>> crops = fetch("crops", cropRepository::countGroupedByState);
+        CompletableFuture<List<Object[]>> orders = fetch("orders", orderRepository::countGroupedByState);
+        CompletableFuture<List<Object[]>> disputes = fetch("disputes", disputeRepository::countGroupedByStatus);
+        CompletableFuture<List<Object[]>> history = fetch("history", cropHistoryRepository::countGroupedByAction);
+        return new AnalyticsSnapshot(users.join(), crops.join(), orders.join(), disputes.join(), history.join());
+    }
+
     public AnalyticsResponse getComprehensiveAnalytics() {
+        CompletableFuture<List<AnalyticsResponse.TimeSeriesData>> trends = monthlyTrends();
+        return getComprehensiveAnalytics(snapshot(), trends);
+    }
+
+    public AnalyticsResponse getComprehensiveAnalytics(AnalyticsSnapshot snapshot) {
+        return getComprehensiveAnalytics(snapshot, monthlyTrends());
+    }
+
+    /**
+     * Monthly trends, loaded next to the snapshot queries
+     */
+    public CompletableFuture<List<AnalyticsResponse.TimeSeriesData>> monthlyTrends() {
+        return fetch("monthlyTrends", this::generateMonthlyTrends);
+    }
+
+    public AnalyticsResponse getComprehensiveAnalytics(AnalyticsSnapshot snapshot,
+                                                       CompletableFuture<List<AnalyticsResponse.TimeSeriesData>> trends) {
         // System stats
         AnalyticsResponse.SystemStats systemStats = new AnalyticsResponse.SystemStats(
-                getTotalUsers(),
-                getTotalFarmers(),
-                getTotalCrops(),
-                getTotalOrders(),
-                getTotalDisputes(),
-                getActiveUsers()
+                snapshot.totalUsers(),
+                snapshot.users(Role.FARMER),
+                snapshot.totalCrops(),
+                snapshot.totalOrders(),
+                snapshot.totalDisputes(),
+                snapshot.users(Status.APPROVED)
         );
 
         // Crop state distribution
         List<AnalyticsResponse.ChartData> cropStateDistribution = Arrays.stream(CropState.values())
                 .map(state -> new AnalyticsResponse.ChartData(
                         state.name(),
-                        cropRepository.countByCropState(state),
+                        snapshot.crops(state),
                         getColorForCropState(state)
                 ))
                 .collect(Collectors.toList());
@@ -93,21 +154,30 @@ public class AnalyticsService {
         List<AnalyticsResponse.ChartData> orderStatusDistribution = Arrays.stream(OrderState.values())
                 .map(state -> new AnalyticsResponse.ChartData(
                         state.name(),
-                        orderRepository.countByOrderState(state),
+                        snapshot.orders(state),
                         getColorForOrderState(state)
                 ))
                 .collect(Collectors.toList());
 
-        // Monthly trends (placeholder - would need actual time-based queries)
-        List<AnalyticsResponse.TimeSeriesData> monthlyTrends = generateMonthlyTrends();
+        // Monthly trends from the rollups
+        List<AnalyticsResponse.TimeSeriesData> monthlyTrends = trends.join();
+        Set<String> missing = new TreeSet<>(snapshot.getMissing());
+        if (monthlyTrends == null) {
+            missing.add("monthlyTrends");
+            monthlyTrends = List.of();
+        }
 
         // Additional metrics
+        long farmers = snapshot.users(Role.FARMER);
         Map<String, Object> additionalMetrics = new HashMap<>();
-        additionalMetrics.put("averageCropsPerFarmer", getTotalFarmers() > 0 ? getTotalCrops() / getTotalFarmers() : 0);
-        additionalMetrics.put("orderCompletionRate", calculateOrderCompletionRate());
-        additionalMetrics.put("disputeRate", calculateDisputeRate());
+        additionalMetrics.put("averageCropsPerFarmer", farmers > 0 ? snapshot.totalCrops() / farmers : 0);
+        additionalMetrics.put("orderCompletionRate", calculateOrderCompletionRate(snapshot));
+        additionalMetrics.put("disputeRate", calculateDisputeRate(snapshot));
         additionalMetrics.put("userGrowthRate", 5.2); // Placeholder
         additionalMetrics.put("systemHealth", "Excellent");
+        if (!missing.isEmpty()) {
+            additionalMetrics.put("missingSections", missing);
+        }
 
         return new AnalyticsResponse(
                 systemStats,
@@ -118,6 +188,25 @@ public class AnalyticsService {
         );
     }
 
+    /**
+     * Totals shown by /analytics/summary and /reports/system-overview
+     */
+    public Map<String, Object> getOverview(AnalyticsSnapshot snapshot) {
+        Map<String, Object> overview = new HashMap<>();
+        overview.put("totalUsers", snapshot.totalUsers());
+        overview.put("totalFarmers", snapshot.users(Role.FARMER));
+        overview.put("activeUsers", snapshot.users(Status.APPROVED));
+        overview.put("totalCrops", snapshot.totalCrops());
+        overview.put("totalOrders", snapshot.totalOrders());
+        overview.put("totalDisputes", snapshot.totalDisputes());
+        overview.put("stateChanges", snapshot.historyActions("STATE_CHANGE"));
+        overview.put("ownershipTransfers", snapshot.historyActions("OWNERSHIP_TRANSFER"));
+        if (snapshot.isPartial()) {
+            overview.put("missingSections", snapshot.getMissing());
+        }
+        return overview;
+    }
+
     // ------------------- New chart-friendly methods -------------------
 
     // Resolve named timeframe to start/end LocalDateTime
@@ -226,37 +315,55 @@ public class AnalyticsService {
     }
 
     private List<AnalyticsResponse.TimeSeriesData> generateMonthlyTrends() {
-        // This is a placeholder. In a real implementation, you would query the database
-        // for actual monthly data over the past 12 months
-        List<AnalyticsResponse.TimeSeriesData> trends = new ArrayList<>();
-        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun",
-                          "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+        // Last 12 months including the current one, from the monthly rollups
+        LocalDateTime to = RollupGranularity.MONTH.next(RollupGranularity.MONTH.bucketOf(LocalDateTime.now()));
+        LocalDateTime from = to.minusMonths(12);
 
-        for (String month : months) {
+        List<AnalyticsResponse.TimeSeriesData> trends = new ArrayList<>();
+        for (RollupPoint point : rollupService.series(RollupGranularity.MONTH, from, to, null, null)) {
             trends.add(new AnalyticsResponse.TimeSeriesData(
-                    month,
-                    (long) (Math.random() * 100 + 50),  // Random data for crops
-                    (long) (Math.random() * 80 + 30),   // Random data for orders
-                    (long) (Math.random() * 20 + 10)    // Random data for users
+                    point.getBucketStart().format(MONTH_LABEL),
+                    point.getCropsCreated(),
+                    point.getOrdersPlaced(),
+                    point.getUsersRegistered()
             ));
         }
 
         return trends;
     }
 
-    private double calculateOrderCompletionRate() {
-        long totalOrders = getTotalOrders();
+    /**
+     * Runs one query on the analytics pool; completes with null if the pool
+     * is full, or the query fails or takes longer than
+     * analytics.query.timeout-ms, so callers can render everything else
+     */
+    private <T> CompletableFuture<T> fetch(String section, Supplier<T> query) {
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> queryTransaction.execute(status -> query.get()), analyticsExecutor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Analytics query '{}' skipped: pool saturated", section);
+            return CompletableFuture.completedFuture(null);
+        }
+        return result
+                .orTimeout(queryTimeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    logger.warn("Analytics query '{}' skipped: {}", section, e.toString());
+                    return null;
+                });
+    }
+
+    private double calculateOrderCompletionRate(AnalyticsSnapshot snapshot) {
+        long totalOrders = snapshot.totalOrders();
         if (totalOrders == 0) return 0.0;
 
-        long completedOrders = orderRepository.countByOrderState(OrderState.COMPLETED);
-        return (double) completedOrders / totalOrders * 100;
+        return (double) snapshot.orders(OrderState.COMPLETED) / totalOrders * 100;
     }
 
-    private double calculateDisputeRate() {
-        long totalOrders = getTotalOrders();
+    private double calculateDisputeRate(AnalyticsSnapshot snapshot) {
+        long totalOrders = snapshot.totalOrders();
         if (totalOrders == 0) return 0.0;
 
-        long totalDisputes = getTotalDisputes();
-        return (double) totalDisputes / totalOrders * 100;
+        return (double) snapshot.totalDisputes() / totalOrders * 100;
     }
 }
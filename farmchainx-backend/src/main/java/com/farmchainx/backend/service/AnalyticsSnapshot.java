@@ -0,0 +1,128 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.enums.OrderState;
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.enums.Status;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Point-in-time distributions of users, crops, orders, disputes and crop
+ * history actions, each loaded with a single GROUP BY query.
+ * Every total and rate on the analytics and reporting endpoints derives from it.
+ * A distribution whose query failed is passed as null: it reads as zero and
+ * is listed in getMissing().
+ */
+public class AnalyticsSnapshot {
+
+    private final long[][] usersByRoleAndStatus = new long[Role.values().length][Status.values().length];
+    private final long[] cropsByState = new long[CropState.values().length];
+    private final long[] ordersByState = new long[OrderState.values().length];
+    private final Map<String, Long> disputesByStatus = new TreeMap<>();
+    private final Map<String, Long> historyByAction = new HashMap<>();
+    private final Set<String> missing = new TreeSet<>();
+    private final LocalDateTime computedAt = LocalDateTime.now();
+
+    /**
+     * Rows of [Role, Status, count], [CropState, count], [OrderState, count],
+     * [status, count] and [action, count]
+     */
+    public AnalyticsSnapshot(List<Object[]> userRows, List<Object[]> cropRows, List<Object[]> orderRows,
+                             List<Object[]> disputeRows, List<Object[]> historyRows) {
+        userRows = orMissing("users", userRows);
+        cropRows = orMissing("crops", cropRows);
+        orderRows = orMissing("orders", orderRows);
+        disputeRows = orMissing("disputes", disputeRows);
+        historyRows = orMissing("history", historyRows);
+
+        for (Object[] r : userRows) {
+            usersByRoleAndStatus[((Role) r[0]).ordinal()][((Status) r[1]).ordinal()] = count(r[2]);
+        }
+        for (Object[] r : cropRows) {
+            cropsByState[((CropState) r[0]).ordinal()] = count(r[1]);
+        }
+        for (Object[] r : orderRows) {
+            ordersByState[((OrderState) r[0]).ordinal()] = count(r[1]);
+        }
+        for (Object[] r : disputeRows) {
+            disputesByStatus.put(String.valueOf(r[0]), count(r[1]));
+        }
+        for (Object[] r : historyRows) {
+            historyByAction.put(String.valueOf(r[0]), count(r[1]));
+        }
+    }
+
+    public long users(Role role) {
+        return Arrays.stream(usersByRoleAndStatus[role.ordinal()]).sum();
+    }
+
+    public long users(Status status) {
+        long sum = 0;
+        for (long[] byStatus : usersByRoleAndStatus) {
+            sum += byStatus[status.ordinal()];
+        }
+        return sum;
+    }
+
+    public long users(Role role, Status status) {
+        return usersByRoleAndStatus[role.ordinal()][status.ordinal()];
+    }
+
+    public long totalUsers() {
+        return Arrays.stream(usersByRoleAndStatus).flatMapToLong(Arrays::stream).sum();
+    }
+
+    public long crops(CropState state) {
+        return cropsByState[state.ordinal()];
+    }
+
+    public long totalCrops() {
+        return Arrays.stream(cropsByState).sum();
+    }
+
+    public long orders(OrderState state) {
+        return ordersByState[state.ordinal()];
+    }
+
+    public long totalOrders() {
+        return Arrays.stream(ordersByState).sum();
+    }
+
+    public long disputes(String status) {
+        return disputesByStatus.getOrDefault(status, 0L);
+    }
+
+    public long totalDisputes() {
+        return disputesByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long historyActions(String action) {
+        return historyByAction.getOrDefault(action, 0L);
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public boolean isPartial() {
+        return !missing.isEmpty();
+    }
+
+    public Set<String> getMissing() {
+        return Collections.unmodifiableSet(missing);
+    }
+
+    private List<Object[]> orMissing(String section, List<Object[]> rows) {
+        if (rows == null) {
+            missing.add(section);
+            return List.of();
+        }
+        return rows;
+    }
+
+    private static long count(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
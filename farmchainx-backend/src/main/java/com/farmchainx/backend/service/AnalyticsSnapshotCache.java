@@ -0,0 +1,149 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.AnalyticsResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cached AnalyticsSnapshot and comprehensive analytics for the admin pages.
+ *
+ * A scheduler recomputes both in the background; readers always get the
+ * last result immediately, and an entry older than max-age only triggers
+ * a background refresh (stale-while-revalidate). A partial entry (some
+ * query timed out or was rejected) is retried sooner, but at most once per
+ * partial-retry-ms so a struggling database isn't hit on every read. Recomputes are
+ * single-flight: concurrent callers share the one in progress. Only the
+ * very first caller after startup waits for a result.
+ */
+@Component
+public class AnalyticsSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsSnapshotCache.class);
+
+    private final AnalyticsService analyticsService;
+    private final long maxAgeMillis;
+    private final long partialRetryMillis;
+    private final Timer recomputeTimer;
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "analytics-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<CompletableFuture<Entry>> inFlight = new AtomicReference<>();
+    private volatile Entry current;
+
+    public AnalyticsSnapshotCache(AnalyticsService analyticsService,
+                                  @Value("${analytics.snapshot.max-age-ms:60000}") long maxAgeMillis,
+                                  @Value("${analytics.snapshot.partial-retry-ms:5000}") long partialRetryMillis,
+                                  MeterRegistry meterRegistry) {
+        this.analyticsService = analyticsService;
+        this.maxAgeMillis = maxAgeMillis;
+        this.partialRetryMillis = partialRetryMillis;
+        this.recomputeTimer = Timer.builder("analytics.snapshot.recompute")
+                .description("Time to recompute the analytics snapshot")
+                .register(meterRegistry);
+        Gauge.builder("analytics.snapshot.age.seconds", this, AnalyticsSnapshotCache::ageSeconds)
+                .register(meterRegistry);
+    }
+
+    public AnalyticsSnapshot snapshot() {
+        return get().snapshot;
+    }
+
+    public AnalyticsResponse comprehensive() {
+        return get().comprehensive;
+    }
+
+    @Scheduled(initialDelayString = "${analytics.snapshot.refresh-ms:30000}",
+               fixedDelayString = "${analytics.snapshot.refresh-ms:30000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    private Entry get() {
+        Entry entry = current;
+        if (entry == null) {
+            return refresh().join();
+        }
+        // A partial result is served but replaced soon after
+        long age = System.currentTimeMillis() - entry.computedAt;
+        if (age > (entry.partial ? partialRetryMillis : maxAgeMillis)) {
+            refresh();
+        }
+        return entry;
+    }
+
+    /**
+     * Starts a recompute unless one is already running; either way returns it
+     */
+    private CompletableFuture<Entry> refresh() {
+        while (true) {
+            CompletableFuture<Entry> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<Entry> mine = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, mine)) {
+                refresher.execute(() -> recompute(mine));
+                return mine;
+            }
+        }
+    }
+
+    private void recompute(CompletableFuture<Entry> future) {
+        try {
+            Entry entry = recomputeTimer.record(() -> {
+                var trends = analyticsService.monthlyTrends();
+                AnalyticsSnapshot snapshot = analyticsService.snapshot();
+                AnalyticsResponse comprehensive = analyticsService.getComprehensiveAnalytics(snapshot, trends);
+                boolean partial = comprehensive.getAdditionalMetrics().containsKey("missingSections");
+                return new Entry(snapshot, comprehensive, System.currentTimeMillis(), partial);
+            });
+            current = entry;
+            inFlight.set(null);
+            future.complete(entry);
+        } catch (RuntimeException e) {
+            // Keep serving the previous entry; the next read or tick retries
+            logger.warn("Analytics snapshot refresh failed: {}", e.getMessage());
+            inFlight.set(null);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private double ageSeconds() {
+        Entry entry = current;
+        return entry == null ? Double.NaN : (System.currentTimeMillis() - entry.computedAt) / 1000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static class Entry {
+        private final AnalyticsSnapshot snapshot;
+        private final AnalyticsResponse comprehensive;
+        private final long computedAt;
+        private final boolean partial;
+
+        Entry(AnalyticsSnapshot snapshot, AnalyticsResponse comprehensive, long computedAt, boolean partial) {
+            this.snapshot = snapshot;
+            this.comprehensive = comprehensive;
+            this.computedAt = computedAt;
+            this.partial = partial;
+        }
+    }
+}
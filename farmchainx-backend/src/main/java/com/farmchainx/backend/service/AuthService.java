@@ -1,19 +1,29 @@
 package com.farmchainx.backend.service;
 
+import com.farmchainx.backend.common.exception.LoginThrottledException;
 import com.farmchainx.backend.config.JwtUtil;
 import com.farmchainx.backend.dto.LoginRequest;
 import com.farmchainx.backend.dto.RegisterRequest;
 import com.farmchainx.backend.entity.*;
 import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.enums.Status;
+import com.farmchainx.backend.event.UserChangedEvent;
 import com.farmchainx.backend.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.farmchainx.backend.dto.LoginResult;
 import com.farmchainx.backend.dto.UserDto;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AuthService {
@@ -25,6 +35,11 @@ public class AuthService {
     private final ConsumerProfileRepository consumerProfileRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final CurrentUser currentUser;
+    private final Executor loginExecutor;
+    private final Timer loginTimer;
+    private final int bcryptStrength;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthService(
             UserRepository userRepository,
@@ -33,7 +48,12 @@ public class AuthService {
             RetailerProfileRepository retailerProfileRepository,
             ConsumerProfileRepository consumerProfileRepository,
             PasswordEncoder passwordEncoder,
-            JwtUtil jwtUtil
+            JwtUtil jwtUtil,
+            CurrentUser currentUser,
+            @Qualifier("loginExecutor") Executor loginExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${auth.bcrypt.strength:10}") int bcryptStrength,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.userRepository = userRepository;
         this.farmerProfileRepository = farmerProfileRepository;
@@ -42,36 +62,73 @@ public class AuthService {
         this.consumerProfileRepository = consumerProfileRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.currentUser = currentUser;
+        this.loginExecutor = loginExecutor;
+        this.bcryptStrength = bcryptStrength;
+        this.eventPublisher = eventPublisher;
+        this.loginTimer = Timer.builder("auth.login.duration")
+                .description("Login latency including time spent queued")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
     }
 
     /**
      * Login → return RAW JWT string (frontend requirement)
      */
     public String login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid credentials"));
-
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
-        }
-
+        User user = verifyCredentials(request, "Invalid credentials");
         return jwtUtil.generateToken(user);
     }
 
     public LoginResult loginWithUser(LoginRequest request) {
+        User user = verifyCredentials(request, "Invalid email or password");
+
+        String token = jwtUtil.generateToken(user);
+
+        return new LoginResult(token, user);
+    }
 
+    /**
+     * Runs the login (BCrypt check) on the bounded login executor instead of
+     * the request thread. Fails fast with LoginThrottledException when the
+     * queue is full.
+     */
+    public CompletableFuture<LoginResult> loginWithUserAsync(LoginRequest request) {
+        long start = System.nanoTime();
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> loginWithUser(request), loginExecutor)
+                    .whenComplete((result, error) -> loginTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        } catch (RejectedExecutionException e) {
+            throw new LoginThrottledException("Too many login attempts, please retry shortly");
+        }
+    }
+
+    private User verifyCredentials(LoginRequest request, String errorMessage) {
         User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
+                .orElseThrow(() -> new RuntimeException(errorMessage));
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid email or password");
+            throw new RuntimeException(errorMessage);
         }
 
-        String token = jwtUtil.generateToken(user);
+        // Transparently move the hash to the configured cost (up or down)
+        if (bcryptCostOf(user.getPassword()) != bcryptStrength) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.save(user);
+        }
 
-        return new LoginResult(token, user);
+        return user;
     }
 
+    private int bcryptCostOf(String hash) {
+        // $2a$10$... -> 10
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
 
     /**
      * Universal registration for all roles
@@ -127,16 +184,16 @@ public class AuthService {
             }
         }
 
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), role, user.getStatus(), true,
+                user.getCreatedAt()));
+
         // Generate JWT token and return result
         String token = jwtUtil.generateToken(user);
         return new LoginResult(token, user);
     }
 
     public UserDto getCurrentUserDto() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser.get();
         return new UserDto(user.getId(), user.getEmail(), user.getRole(), user.getStatus());
     }
 }
@@ -0,0 +1,192 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.NotificationView;
+import com.farmchainx.backend.entity.BroadcastNotification;
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.repository.BroadcastNotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Role-wide broadcasts, stored once (fan-out on read).
+ *
+ * Broadcasts are rare and everyone reads the newest ones, so the latest
+ * few are kept in memory; first pages and unread counts are answered from
+ * there and only older ranges go to the table. The sending instance reloads
+ * them after each broadcast; other instances pick a broadcast up within
+ * cache-ttl-ms.
+ *
+ * A broadcast can instead be materialized: copied into notifications for
+ * each recipient in the background, one chunk of users per transaction.
+ */
+@Service
+public class BroadcastService {
+
+    private static final int RECENT = 100;
+
+    private final BroadcastNotificationRepository broadcastRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long cacheTtlMillis;
+
+    private volatile Recent recent;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BroadcastService(BroadcastNotificationRepository broadcastRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${notifications.broadcast.chunk-size:1000}") int chunkSize,
+                            @Value("${notifications.broadcast.cache-ttl-ms:10000}") long cacheTtlMillis) {
+        this.broadcastRepository = broadcastRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.cacheTtlMillis = cacheTtlMillis;
+    }
+
+    public BroadcastNotification save(BroadcastNotification broadcast) {
+        return broadcastRepository.save(broadcast);
+    }
+
+    public Optional<BroadcastNotification> find(Long id) {
+        return broadcastRepository.findById(id);
+    }
+
+    /**
+     * Up to limit broadcasts for the role, newest first, strictly after the cursor
+     */
+    public List<NotificationView> page(Role role, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        if (afterCreatedAt == null) {
+            Recent cached = recent();
+            List<NotificationView> rows = cached.broadcasts.stream().filter(b -> b.targets(role))
+                    .limit(limit).map(NotificationView::of).toList();
+            if (rows.size() == limit || cached.complete) {
+                return rows;
+            }
+        }
+        return broadcastRepository.findPage(role, afterCreatedAt,
+                        afterCreatedAt != null && afterId == null ? Long.MAX_VALUE : afterId, PageRequest.of(0, limit))
+                .stream().map(NotificationView::of).toList();
+    }
+
+    /**
+     * Broadcasts for the role created after the watermark (all of them when it is null)
+     */
+    public long countNewer(Role role, LocalDateTime watermark) {
+        Recent cached = recent();
+        List<BroadcastNotification> broadcasts = cached.broadcasts;
+        boolean covered = cached.complete || (watermark != null && !broadcasts.isEmpty()
+                && !broadcasts.get(broadcasts.size() - 1).getCreatedAt().isAfter(watermark));
+        if (!covered) {
+            return broadcastRepository.countNewer(role, watermark);
+        }
+        return broadcasts.stream()
+                .filter(b -> b.targets(role) && (watermark == null || b.getCreatedAt().isAfter(watermark)))
+                .count();
+    }
+
+    /**
+     * Reloads the cached broadcasts; called after a broadcast commits
+     */
+    public synchronized void refresh() {
+        List<BroadcastNotification> latest = broadcastRepository.findLatest(PageRequest.of(0, RECENT + 1));
+        boolean complete = latest.size() <= RECENT;
+        recent = new Recent(complete ? latest : latest.subList(0, RECENT), complete, System.currentTimeMillis());
+    }
+
+    /**
+     * Inserts one notification per recipient (with its unread count) in chunks
+     * of chunk-size users, ordered by user id; onChunk gets the emails of each
+     * committed chunk. A recipient without a counter yet starts from all their
+     * unread rows, as with any first notification.
+     */
+    public long materialize(BroadcastNotification broadcast, Consumer<List<String>> onChunk) {
+        String roleFilter = broadcast.getTargetRole() != null ? "role = '" + broadcast.getTargetRole().name() + "' AND " : "";
+        long afterId = 0;
+        long total = 0;
+        while (true) {
+            long from = afterId;
+            List<Object[]> chunk = transactionTemplate.execute(status -> materializeChunk(broadcast, roleFilter, from));
+            if (chunk == null || chunk.isEmpty()) {
+                return total;
+            }
+            total += chunk.size();
+            afterId = ((Number) chunk.get(chunk.size() - 1)[0]).longValue();
+            onChunk.accept(chunk.stream().map(row -> (String) row[1]).toList());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> materializeChunk(BroadcastNotification broadcast, String roleFilter, long afterId) {
+        List<Object[]> users = entityManager.createNativeQuery(
+                        "SELECT id, email FROM users WHERE " + roleFilter + "id > :afterId ORDER BY id LIMIT :limit")
+                .setParameter("afterId", afterId)
+                .setParameter("limit", chunkSize)
+                .getResultList();
+        if (users.isEmpty()) {
+            return users;
+        }
+        long fromId = ((Number) users.get(0)[0]).longValue();
+        long toId = ((Number) users.get(users.size() - 1)[0]).longValue();
+        String range = "FROM users WHERE " + roleFilter + "id BETWEEN :fromId AND :toId";
+
+        entityManager.createNativeQuery(
+                        "INSERT INTO notifications (user_id, user_email, type, message, priority, is_read, created_at) " +
+                        "SELECT id, email, 'SYSTEM', :message, :priority, false, :createdAt " + range)
+                .setParameter("message", broadcast.getMessage())
+                .setParameter("priority", broadcast.getPriority())
+                .setParameter("createdAt", broadcast.getCreatedAt())
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+        entityManager.createNativeQuery(
+                        "INSERT INTO notification_read_state (user_email, unread_count) " +
+                        "SELECT email, (SELECT COUNT(*) FROM notifications n WHERE n.user_email = users.email AND n.is_read = false) " +
+                        range + " " +
+                        "ON DUPLICATE KEY UPDATE unread_count = unread_count + " +
+                        "IF(read_all_before IS NULL OR read_all_before < :createdAt, 1, 0)")
+                .setParameter("createdAt", broadcast.getCreatedAt())
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .executeUpdate();
+        return users;
+    }
+
+    private Recent recent() {
+        Recent r = recent;
+        if (r == null || System.currentTimeMillis() - r.loadedAt > cacheTtlMillis) {
+            synchronized (this) {
+                if (recent == r) {
+                    refresh();
+                }
+                r = recent;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Newest first; complete when it held every non-materialized broadcast at loadedAt
+     */
+    private static class Recent {
+        private final List<BroadcastNotification> broadcasts;
+        private final boolean complete;
+        private final long loadedAt;
+
+        Recent(List<BroadcastNotification> broadcasts, boolean complete, long loadedAt) {
+            this.broadcasts = List.copyOf(broadcasts);
+            this.complete = complete;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
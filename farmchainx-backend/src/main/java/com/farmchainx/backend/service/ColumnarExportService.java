@@ -0,0 +1,321 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.enums.OrderState;
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.shipment.enums.ShipmentStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.*;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Arrow IPC (streaming format) exports of the supply-chain tables for
+ * offline analytics.
+ *
+ * Rows are streamed from a MySQL cursor as in ReportExportService and packed
+ * into record batches of BATCH_SIZE rows. Enum columns are dictionary
+ * encoded: the dictionary holds the enum names and each row stores the
+ * ordinal in one byte. Exports can be incremental: only rows with an id
+ * above sinceId and/or a timestamp at or after since, up to the watermark
+ * taken when the export starts.
+ */
+@Service
+public class ColumnarExportService {
+
+    public static final String CONTENT_TYPE = "application/vnd.apache.arrow.stream";
+
+    private static final int BATCH_SIZE = 8192;
+
+    private static final Map<String, Dataset> DATASETS = new LinkedHashMap<>();
+
+    static {
+        DATASETS.put("crops", new Dataset("Crop c LEFT JOIN c.currentOwner u", "c.id", "c.updatedAt", List.of(
+                Column.int64("id", "c.id"),
+                Column.string("crop_name", "c.cropName"),
+                Column.float64("quantity", "c.quantity"),
+                Column.timestamp("harvest_date", "c.harvestDate"),
+                Column.string("location", "c.location"),
+                Column.enumerated("crop_state", "c.cropState", CropState.class),
+                Column.int64("owner_id", "u.id"),
+                Column.enumerated("owner_role", "c.currentOwnerRole", Role.class),
+                Column.timestamp("created_at", "c.createdAt"),
+                Column.timestamp("updated_at", "c.updatedAt"))));
+        DATASETS.put("crop-history", new Dataset("CropHistory h JOIN h.crop c JOIN h.performedBy u", "h.id", "h.timestamp", List.of(
+                Column.int64("id", "h.id"),
+                Column.int64("crop_id", "c.id"),
+                Column.string("action", "h.action"),
+                Column.enumerated("from_state", "h.fromState", CropState.class),
+                Column.enumerated("to_state", "h.toState", CropState.class),
+                Column.int64("performed_by", "u.id"),
+                Column.enumerated("role", "h.role", Role.class),
+                Column.timestamp("timestamp", "h.timestamp"))));
+        DATASETS.put("orders", new Dataset("Order o JOIN o.crop c JOIN o.buyer b JOIN o.seller s", "o.id", "o.updatedAt", List.of(
+                Column.int64("id", "o.id"),
+                Column.int64("crop_id", "c.id"),
+                Column.int64("buyer_id", "b.id"),
+                Column.int64("seller_id", "s.id"),
+                Column.enumerated("order_state", "o.orderState", OrderState.class),
+                Column.float64("requested_quantity", "o.requestedQuantity"),
+                Column.float64("offered_price", "o.offeredPrice"),
+                Column.timestamp("created_at", "o.createdAt"),
+                Column.timestamp("updated_at", "o.updatedAt"))));
+        DATASETS.put("shipments", new Dataset("Shipment s JOIN s.order o", "s.id", "s.updatedAt", List.of(
+                Column.int64("id", "s.id"),
+                Column.int64("order_id", "o.id"),
+                Column.string("tracking_number", "s.trackingNumber"),
+                Column.enumerated("status", "s.status", ShipmentStatus.class),
+                Column.string("destination_address", "s.destinationAddress"),
+                Column.string("condition_status", "s.conditionStatus"),
+                Column.timestamp("created_at", "s.createdAt"),
+                Column.timestamp("dispatched_at", "s.dispatchedAt"),
+                Column.timestamp("estimated_delivery_at", "s.estimatedDeliveryAt"),
+                Column.timestamp("actual_delivery_at", "s.actualDeliveryAt"),
+                Column.timestamp("updated_at", "s.updatedAt"))));
+        DATASETS.put("shipment-tracking-events", new Dataset(
+                "ShipmentTrackingEvent e JOIN e.shipment s LEFT JOIN e.recordedBy u", "e.id", "e.timestamp", List.of(
+                Column.int64("id", "e.id"),
+                Column.int64("shipment_id", "s.id"),
+                Column.string("event_type", "e.eventType"),
+                Column.string("description", "e.description"),
+                Column.float64("latitude", "e.latitude"),
+                Column.float64("longitude", "e.longitude"),
+                Column.string("location_name", "e.locationName"),
+                Column.float64("temperature", "e.temperature"),
+                Column.float64("humidity", "e.humidity"),
+                Column.int64("recorded_by", "u.id"),
+                Column.timestamp("timestamp", "e.timestamp"))));
+    }
+
+    private final BufferAllocator rootAllocator;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ColumnarExportService(PlatformTransactionManager transactionManager,
+                                 @Value("${reports.arrow.max-memory-mb:256}") long maxMemoryMb) {
+        this.rootAllocator = new RootAllocator(maxMemoryMb * 1024 * 1024);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Set<String> dataTypes() {
+        return DATASETS.keySet();
+    }
+
+    public boolean supports(String dataType) {
+        return DATASETS.containsKey(dataType);
+    }
+
+    /**
+     * Highest id the export will include; pass it as sinceId next time
+     */
+    public long watermark(String dataType) {
+        Dataset dataset = dataset(dataType);
+        Long max = readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT MAX(" + dataset.idPath + ") FROM " + dataset.from, Long.class)
+                .getSingleResult());
+        return max != null ? max : 0L;
+    }
+
+    /**
+     * Writes rows with sinceId < id <= watermark (and timestamp >= since, if given); returns the row count
+     */
+    public long export(String dataType, Long sinceId, LocalDateTime since, long watermark, OutputStream out) throws IOException {
+        Dataset dataset = dataset(dataType);
+
+        try (BufferAllocator allocator = rootAllocator.newChildAllocator("export-" + dataType, 0, Long.MAX_VALUE)) {
+            DictionaryProvider.MapDictionaryProvider dictionaries = new DictionaryProvider.MapDictionaryProvider();
+            try {
+                List<Field> fields = new ArrayList<>();
+                for (Column column : dataset.columns) {
+                    fields.add(column.field(allocator, dictionaries));
+                }
+
+                try (VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields), allocator);
+                     ArrowStreamWriter writer = new ArrowStreamWriter(root, dictionaries, Channels.newChannel(out))) {
+                    writer.start();
+                    Long count = readOnlyTransaction.execute(status -> {
+                        try {
+                            return writeBatches(dataset, sinceId, since, watermark, root, writer);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    writer.end();
+                    return count != null ? count : 0L;
+                }
+            } finally {
+                for (long id : dictionaries.getDictionaryIds()) {
+                    dictionaries.lookup(id).getVector().close();
+                }
+            }
+        }
+    }
+
+    private long writeBatches(Dataset dataset, Long sinceId, LocalDateTime since, long watermark,
+                              VectorSchemaRoot root, ArrowStreamWriter writer) throws IOException {
+        StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM " + dataset.from);
+        dataset.columns.forEach(c -> select.add(c.path));
+        StringBuilder jpql = new StringBuilder(select.toString())
+                .append(" WHERE ").append(dataset.idPath).append(" > :sinceId AND ")
+                .append(dataset.idPath).append(" <= :watermark");
+        if (since != null) {
+            jpql.append(" AND ").append(dataset.timestampPath).append(" >= :since");
+        }
+        jpql.append(" ORDER BY ").append(dataset.idPath);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("sinceId", sinceId != null ? sinceId : 0L)
+                .setParameter("watermark", watermark)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (since != null) {
+            query.setParameter("since", since);
+        }
+
+        long total = 0;
+        int row = 0;
+        root.allocateNew();
+        try (Stream<Object[]> stream = query.getResultStream()) {
+            for (Object[] values : (Iterable<Object[]>) stream::iterator) {
+                for (int i = 0; i < values.length; i++) {
+                    dataset.columns.get(i).set(root.getVector(i), row, values[i]);
+                }
+                row++;
+                total++;
+                if (row == BATCH_SIZE) {
+                    flush(root, writer, row);
+                    root.allocateNew();
+                    row = 0;
+                }
+            }
+        }
+        if (row > 0) {
+            flush(root, writer, row);
+        }
+        return total;
+    }
+
+    private static void flush(VectorSchemaRoot root, ArrowStreamWriter writer, int rows) throws IOException {
+        root.getFieldVectors().forEach(v -> v.setValueCount(rows));
+        root.setRowCount(rows);
+        writer.writeBatch();
+    }
+
+    private Dataset dataset(String dataType) {
+        Dataset dataset = DATASETS.get(dataType);
+        if (dataset == null) {
+            throw new IllegalArgumentException("Unknown data type: " + dataType + ", expected one of " + DATASETS.keySet());
+        }
+        return dataset;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rootAllocator.close();
+    }
+
+    private enum Kind { INT64, FLOAT64, STRING, TIMESTAMP, ENUM }
+
+    private static class Column {
+        private final String name;
+        private final String path;
+        private final Kind kind;
+        private final Class<? extends Enum<?>> enumType;
+
+        private Column(String name, String path, Kind kind, Class<? extends Enum<?>> enumType) {
+            this.name = name;
+            this.path = path;
+            this.kind = kind;
+            this.enumType = enumType;
+        }
+
+        static Column int64(String name, String path) { return new Column(name, path, Kind.INT64, null); }
+        static Column float64(String name, String path) { return new Column(name, path, Kind.FLOAT64, null); }
+        static Column string(String name, String path) { return new Column(name, path, Kind.STRING, null); }
+        static Column timestamp(String name, String path) { return new Column(name, path, Kind.TIMESTAMP, null); }
+        static Column enumerated(String name, String path, Class<? extends Enum<?>> type) {
+            return new Column(name, path, Kind.ENUM, type);
+        }
+
+        /**
+         * Arrow field; enum columns also register their dictionary of names
+         */
+        Field field(BufferAllocator allocator, DictionaryProvider.MapDictionaryProvider dictionaries) {
+            return switch (kind) {
+                case INT64 -> Field.nullable(name, new ArrowType.Int(64, true));
+                case FLOAT64 -> Field.nullable(name, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE));
+                case STRING -> Field.nullable(name, ArrowType.Utf8.INSTANCE);
+                case TIMESTAMP -> Field.nullable(name, new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC"));
+                case ENUM -> {
+                    DictionaryEncoding encoding = new DictionaryEncoding(
+                            dictionaries.getDictionaryIds().size(), false, new ArrowType.Int(8, true));
+                    Enum<?>[] constants = enumType.getEnumConstants();
+                    VarCharVector names = new VarCharVector(name + "_dictionary", allocator);
+                    names.allocateNew(constants.length);
+                    for (Enum<?> constant : constants) {
+                        names.setSafe(constant.ordinal(), constant.name().getBytes(StandardCharsets.UTF_8));
+                    }
+                    names.setValueCount(constants.length);
+                    dictionaries.put(new Dictionary(names, encoding));
+                    yield new Field(name, new FieldType(true, new ArrowType.Int(8, true), encoding), null);
+                }
+            };
+        }
+
+        void set(FieldVector vector, int row, Object value) {
+            // Validity bits start cleared, so a skipped row reads as null
+            if (value == null) {
+                return;
+            }
+            switch (kind) {
+                case INT64 -> ((BigIntVector) vector).setSafe(row, ((Number) value).longValue());
+                case FLOAT64 -> ((Float8Vector) vector).setSafe(row, ((Number) value).doubleValue());
+                case STRING -> ((VarCharVector) vector).setSafe(row, value.toString().getBytes(StandardCharsets.UTF_8));
+                case TIMESTAMP -> ((TimeStampVector) vector).setSafe(row,
+                        ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli());
+                case ENUM -> ((TinyIntVector) vector).setSafe(row, ((Enum<?>) value).ordinal());
+            }
+        }
+    }
+
+    private static class Dataset {
+        private final String from;
+        private final String idPath;
+        private final String timestampPath;
+        private final List<Column> columns;
+
+        Dataset(String from, String idPath, String timestampPath, List<Column> columns) {
+            this.from = from;
+            this.idPath = idPath;
+            this.timestampPath = timestampPath;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.common.tx.RebuildGate;
+import com.farmchainx.backend.entity.Crop;
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.event.CropChangedEvent;
+import com.farmchainx.backend.repository.CropRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the name and location of LISTED crops.
+ *
+ * Terms live in a sorted map so prefix lookups are a range scan, and every
+ * term is also split into trigrams to match substrings ("mato" -> "tomato").
+ * The index is built once at startup and then kept current from
+ * CropChangedEvent, so searching never touches the crops table. The
+ * startup build runs under a RebuildGate, so a change committed while it
+ * reads is applied after it instead of being cleared by it.
+ */
+@Component
+public class CropSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CropSearchIndex.class);
+
+    private static final int GRAM = 3;
+    // Share of a query token's trigrams a term must contain to count as a match
+    private static final double MIN_GRAM_OVERLAP = 0.6;
+
+    private static final double NAME_EXACT = 10, NAME_PREFIX = 6, NAME_GRAM = 3;
+    private static final double LOCATION_EXACT = 5, LOCATION_PREFIX = 3, LOCATION_GRAM = 1.5;
+
+    private final CropRepository cropRepository;
+
+    private final Map<Long, IndexedCrop> documents = new HashMap<>();
+    // term -> crop ids, for the name and location fields separately
+    private final NavigableMap<String, Set<Long>> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> locationTerms = new TreeMap<>();
+    // trigram -> terms containing it
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RebuildGate gate = new RebuildGate();
+
+    public CropSearchIndex(CropRepository cropRepository, MeterRegistry meterRegistry) {
+        this.cropRepository = cropRepository;
+        Gauge.builder("marketplace.search.index.size", this, CropSearchIndex::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int indexed = gate.exclusive(() -> {
+            List<Crop> listed = cropRepository.findByCropState(CropState.LISTED);
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                nameTerms.clear();
+                locationTerms.clear();
+                grams.clear();
+                for (Crop crop : listed) {
+                    add(crop.getId(), crop.getCropName(), crop.getLocation());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return listed.size();
+        });
+        logger.info("Crop search index built with {} listed crops", indexed);
+    }
+
+    /**
+     * Applied after the change is committed (or right away when there is no transaction)
+     */
+    @EventListener
+    public void onCropChanged(CropChangedEvent event) {
+        gate.afterCommit(() -> apply(event));
+    }
+
+    private void apply(CropChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getCropId());
+            if (event.getToState() == CropState.LISTED) {
+                add(event.getCropId(), event.getCropName(), event.getLocation());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked crop ids; every query token has to match the name or the location
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : queryTokens) {
+                Map<Long, Double> tokenScores = new HashMap<>();
+                score(token, nameTerms, NAME_EXACT, NAME_PREFIX, NAME_GRAM, tokenScores);
+                score(token, locationTerms, LOCATION_EXACT, LOCATION_PREFIX, LOCATION_GRAM, tokenScores);
+
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, s) -> s + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            // Best score first, newer crops (higher id) break ties
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best match per crop for one query token: exact term, then term prefix,
+     * then trigram overlap
+     */
+    private void score(String token, NavigableMap<String, Set<Long>> terms,
+                       double exact, double prefix, double gram, Map<Long, Double> out) {
+        Set<Long> exactIds = terms.get(token);
+        if (exactIds != null) {
+            exactIds.forEach(id -> out.merge(id, exact, Math::max));
+        }
+
+        for (Map.Entry<String, Set<Long>> e : terms.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            e.getValue().forEach(id -> out.merge(id, prefix, Math::max));
+        }
+
+        if (token.length() < GRAM) {
+            return;
+        }
+        List<String> queryGrams = gramsOf(token);
+        Map<String, Integer> overlap = new HashMap<>();
+        for (String g : queryGrams) {
+            Set<String> containing = grams.get(g);
+            if (containing != null) {
+                containing.forEach(term -> overlap.merge(term, 1, Integer::sum));
+            }
+        }
+        for (Map.Entry<String, Integer> e : overlap.entrySet()) {
+            double ratio = (double) e.getValue() / queryGrams.size();
+            Set<Long> ids = terms.get(e.getKey());
+            if (ratio >= MIN_GRAM_OVERLAP && ids != null) {
+                double s = gram * ratio;
+                ids.forEach(id -> out.merge(id, s, Math::max));
+            }
+        }
+    }
+
+    // Callers hold the write lock
+
+    private void add(Long id, String cropName, String location) {
+        IndexedCrop doc = new IndexedCrop(tokenize(cropName), tokenize(location));
+        documents.put(id, doc);
+        doc.nameTokens.forEach(t -> addTerm(nameTerms, t, id));
+        doc.locationTokens.forEach(t -> addTerm(locationTerms, t, id));
+    }
+
+    private void remove(Long id) {
+        IndexedCrop doc = documents.remove(id);
+        if (doc == null) {
+            return;
+        }
+        doc.nameTokens.forEach(t -> removeTerm(nameTerms, t, id));
+        doc.locationTokens.forEach(t -> removeTerm(locationTerms, t, id));
+    }
+
+    private void addTerm(NavigableMap<String, Set<Long>> terms, String term, Long id) {
+        terms.computeIfAbsent(term, k -> new HashSet<>()).add(id);
+        for (String g : gramsOf(term)) {
+            grams.computeIfAbsent(g, k -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void removeTerm(NavigableMap<String, Set<Long>> terms, String term, Long id) {
+        Set<Long> ids = terms.get(term);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(id);
+        if (!ids.isEmpty()) {
+            return;
+        }
+        terms.remove(term);
+        // Drop the term from the trigram table once neither field uses it
+        if (!nameTerms.containsKey(term) && !locationTerms.containsKey(term)) {
+            for (String g : gramsOf(term)) {
+                Set<String> containing = grams.get(g);
+                if (containing != null) {
+                    containing.remove(term);
+                    if (containing.isEmpty()) {
+                        grams.remove(g);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Lowercase, strip accents, split on anything that isn't a letter or digit
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !tokens.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> gramsOf(String term) {
+        if (term.length() < GRAM) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(term.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            String g = term.substring(i, i + GRAM);
+            if (!result.contains(g)) {
+                result.add(g);
+            }
+        }
+        return result;
+    }
+
+    private static class IndexedCrop {
+        private final List<String> nameTokens;
+        private final List<String> locationTokens;
+
+        IndexedCrop(List<String> nameTokens, List<String> locationTokens) {
+            this.nameTokens = nameTokens;
+            this.locationTokens = locationTokens;
+        }
+    }
+}
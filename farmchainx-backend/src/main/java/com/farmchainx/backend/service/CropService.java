@@ -12,9 +12,9 @@ import com.farmchainx.backend.enums.Status;
 import com.farmchainx.backend.repository.CropRepository;
 import com.farmchainx.backend.repository.FarmerProfileRepository;
 import com.farmchainx.backend.repository.UserRepository;
+import com.farmchainx.backend.event.CropChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import com.farmchainx.backend.enums.CropState;
 import com.farmchainx.backend.entity.CropHistory;
@@ -30,22 +30,42 @@ public class CropService {
     private final UserRepository userRepository;
     private final FarmerProfileRepository farmerProfileRepository;
     private final CropHistoryRepository cropHistoryRepository;
+    private final CurrentUser currentUser;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CropService(
             CropRepository cropRepository,
             UserRepository userRepository,
             FarmerProfileRepository farmerProfileRepository,
-            CropHistoryRepository cropHistoryRepository
+            CropHistoryRepository cropHistoryRepository,
+            CurrentUser currentUser,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.cropRepository = cropRepository;
         this.userRepository = userRepository;
         this.farmerProfileRepository = farmerProfileRepository;
         this.cropHistoryRepository = cropHistoryRepository;
+        this.currentUser = currentUser;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Record a crop change in its history and announce it to listeners
+     * (search index etc.)
+     */
     public void logCropHistory(Crop crop, String action, CropState fromState, CropState toState, User performedBy, Role role) {
         CropHistory history = new CropHistory(crop, action, fromState, toState, performedBy, role);
         cropHistoryRepository.save(history);
+        publishCropChanged(crop, fromState, toState);
+    }
+
+    /**
+     * Announce a state change that is not part of the crop's traceable history
+     * (marketplace list/unlist)
+     */
+    public void publishCropChanged(Crop crop, CropState fromState, CropState toState) {
+        eventPublisher.publishEvent(new CropChangedEvent(
+                crop.getId(), crop.getCropName(), crop.getLocation(), fromState, toState, crop.getCreatedAt()));
     }
 
 
@@ -78,23 +98,19 @@ public class CropService {
     public Crop registerCrop(CropCreateRequest request) {
         System.out.println("🔄 CropService.registerCrop() started");
 
-        // 1) Extract logged-in user email from JWT
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
+        // 1) Resolve logged-in user (loaded once per request)
+        User user = currentUser.get();
+        String email = user.getEmail();
         System.out.println("   📧 Authenticated user email: " + email);
-
-        // 2) Load User entity
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
         System.out.println("   👤 User found - ID: " + user.getId() + ", Role: " + user.getRole());
 
-        // 3) Load FarmerProfile
+        // 2) Load FarmerProfile
         System.out.println("   🔍 Looking for FarmerProfile for user: " + email);
         FarmerProfile farmer = farmerProfileRepository.findByUser(user)
                 .orElseThrow(() -> new RuntimeException("Farmer profile not found for user: " + email));
         System.out.println("   🚜 FarmerProfile found - ID: " + farmer.getId());
 
-        // 4) Build Crop entity
+        // 3) Build Crop entity
         System.out.println("   🌱 Creating new Crop entity");
         Crop crop = new Crop();
         crop.setCropName(request.getCropName());
@@ -105,7 +121,7 @@ public class CropService {
         crop.setCurrentOwner(user);
         crop.setCurrentOwnerRole(Role.FARMER);
 
-        // 5) Generate blockchain hash
+        // 4) Generate blockchain hash
         String hash = UUID.randomUUID().toString().replace("-", "");
         crop.setBlockchainHash(hash);
         System.out.println("   🔗 Generated blockchain hash: " + hash);
@@ -2,13 +2,12 @@ package com.farmchainx.backend.service;
 
 import com.farmchainx.backend.dto.*;
 import com.farmchainx.backend.entity.Crop;
-import com.farmchainx.backend.entity.Order;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.OrderState;
 import com.farmchainx.backend.repository.CropRepository;
 import com.farmchainx.backend.repository.OrderRepository;
-import com.farmchainx.backend.repository.UserRepository;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
@@ -18,18 +17,26 @@ import java.util.stream.Collectors;
 @Service
 public class DashboardService {
 
+    private static final Pageable RECENT_ORDERS = PageRequest.of(0, 10);
+    private static final Pageable PURCHASE_HISTORY = PageRequest.of(0, 20);
+    private static final Pageable INVENTORY_ITEMS = PageRequest.of(0, 20);
+    private static final Pageable TRACEABLE_ITEMS = PageRequest.of(0, 20);
+
     private final CropRepository cropRepository;
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final UserCounterService userCounterService;
 
-    public DashboardService(CropRepository cropRepository, OrderRepository orderRepository, UserRepository userRepository) {
+    public DashboardService(CropRepository cropRepository, OrderRepository orderRepository, CurrentUser currentUser,
+                            UserCounterService userCounterService) {
         this.cropRepository = cropRepository;
         this.orderRepository = orderRepository;
-        this.userRepository = userRepository;
+        this.currentUser = currentUser;
+        this.userCounterService = userCounterService;
     }
 
     public FarmerDashboardResponse getFarmerDashboard() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        String email = currentUser.getEmail();
 
         List<Crop> crops = cropRepository.findByCurrentOwnerEmail(email);
 
@@ -45,28 +52,23 @@ public class DashboardService {
     }
 
     public DistributorDashboardResponse getDistributorDashboard() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Calculate stats
-        List<Order> purchases = orderRepository.findByBuyer(user);
-        List<Order> sales = orderRepository.findBySeller(user);
-        long activeOrders = purchases.stream()
-                .filter(o -> o.getOrderState() != OrderState.COMPLETED && o.getOrderState() != OrderState.CANCELLED)
-                .count();
-        double totalRevenue = sales.stream()
-                .filter(o -> o.getOrderState() == OrderState.COMPLETED)
-                .mapToDouble(o -> 0.0) // Price calculation would go here
-                .sum();
+        User user = currentUser.get();
+        String email = user.getEmail();
+
+        // Calculate stats (materialized counters, one read)
+        UserCounterService.UserCounters counters = userCounterService.countersOf(user);
+        OrderTotals purchases = counters.getAsBuyer();
+        OrderTotals sales = counters.getAsSeller();
+        long activeOrders = purchases.active();
+        double totalRevenue = sales.amount(OrderState.COMPLETED);
 
         DistributorDashboardResponse.DashboardStats stats = new DistributorDashboardResponse.DashboardStats(
-                purchases.size(), sales.size(), activeOrders, totalRevenue
+                purchases.total(), sales.total(), activeOrders, totalRevenue
         );
 
         // Recent purchases
-        List<DistributorDashboardResponse.PurchaseSummary> recentPurchases = purchases.stream()
-                .limit(10)
+        List<DistributorDashboardResponse.PurchaseSummary> recentPurchases = orderRepository
+                .findByBuyerOrderByCreatedAtDesc(user, RECENT_ORDERS).stream()
                 .map(o -> new DistributorDashboardResponse.PurchaseSummary(
                         o.getId(),
                         o.getCrop().getCropName(),
@@ -77,8 +79,8 @@ public class DashboardService {
                 .collect(Collectors.toList());
 
         // Recent sales
-        List<DistributorDashboardResponse.SaleSummary> recentSales = sales.stream()
-                .limit(10)
+        List<DistributorDashboardResponse.SaleSummary> recentSales = orderRepository
+                .findBySellerOrderByCreatedAtDesc(user, RECENT_ORDERS).stream()
                 .map(o -> new DistributorDashboardResponse.SaleSummary(
                         o.getId(),
                         o.getCrop().getCropName(),
@@ -92,43 +94,32 @@ public class DashboardService {
     }
 
     public RetailerDashboardResponse getRetailerDashboard() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Get inventory (crops currently owned by retailer)
-        List<Crop> inventory = cropRepository.findByCurrentOwnerEmail(email);
-
-        // Get orders
-        List<Order> purchases = orderRepository.findByBuyer(user);
-        List<Order> sales = orderRepository.findBySeller(user);
-
-        long soldItems = sales.stream()
-                .filter(o -> o.getOrderState() == OrderState.COMPLETED)
-                .count();
-        long pendingOrders = sales.stream()
-                .filter(o -> o.getOrderState() == OrderState.PLACED || o.getOrderState() == OrderState.ACCEPTED)
-                .count();
-        double totalRevenue = sales.stream()
-                .filter(o -> o.getOrderState() == OrderState.COMPLETED)
-                .mapToDouble(o -> 0.0) // Price calculation would go here
-                .sum();
-        long customersServed = sales.stream()
-                .map(o -> o.getBuyer().getId())
-                .distinct()
-                .count();
+        User user = currentUser.get();
+        String email = user.getEmail();
+
+        // Get inventory (crops currently owned by retailer), newest first
+        long inventorySize = cropRepository.countByCurrentOwnerEmail(email);
+        List<CropView> inventory = cropRepository.findViewsByOwnerEmail(email, INVENTORY_ITEMS);
+
+        // Order stats (materialized counters, one read)
+        UserCounterService.UserCounters counters = userCounterService.countersOf(user);
+        OrderTotals sales = counters.getAsSeller();
+
+        long soldItems = sales.count(OrderState.COMPLETED);
+        long pendingOrders = sales.count(OrderState.PLACED) + sales.count(OrderState.ACCEPTED);
+        double totalRevenue = sales.amount(OrderState.COMPLETED);
+        long customersServed = counters.getCustomersServed();
 
         RetailerDashboardResponse.RetailStats stats = new RetailerDashboardResponse.RetailStats(
-                inventory.size(), soldItems, pendingOrders, totalRevenue, customersServed
+                inventorySize, soldItems, pendingOrders, totalRevenue, customersServed
         );
 
         // Inventory items
         List<RetailerDashboardResponse.InventoryItem> inventoryItems = inventory.stream()
-                .limit(20)
                 .map(c -> new RetailerDashboardResponse.InventoryItem(
                         c.getId(),
                         c.getCropName(),
-                        c.getCurrentOwner().getEmail(),
+                        c.getOwnerEmail(),
                         c.getCropState().name(),
                         c.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
                         c.getQuantity()
@@ -136,8 +127,8 @@ public class DashboardService {
                 .collect(Collectors.toList());
 
         // Recent customer orders
-        List<RetailerDashboardResponse.CustomerOrder> recentOrders = sales.stream()
-                .limit(10)
+        List<RetailerDashboardResponse.CustomerOrder> recentOrders = orderRepository
+                .findBySellerOrderByCreatedAtDesc(user, RECENT_ORDERS).stream()
                 .map(o -> new RetailerDashboardResponse.CustomerOrder(
                         o.getId(),
                         o.getBuyer().getEmail(),
@@ -151,30 +142,22 @@ public class DashboardService {
     }
 
     public ConsumerDashboardResponse getConsumerDashboard() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Order> purchases = orderRepository.findByBuyer(user);
-
-        long activeOrders = purchases.stream()
-                .filter(o -> o.getOrderState() != OrderState.COMPLETED && o.getOrderState() != OrderState.CANCELLED)
-                .count();
-        long completedOrders = purchases.stream()
-                .filter(o -> o.getOrderState() == OrderState.COMPLETED)
-                .count();
-        double totalSpent = purchases.stream()
-                .filter(o -> o.getOrderState() == OrderState.COMPLETED)
-                .mapToDouble(o -> 0.0) // Price calculation would go here
-                .sum();
+        User user = currentUser.get();
+        String email = user.getEmail();
+
+        OrderTotals purchases = userCounterService.countersOf(user).getAsBuyer();
+
+        long activeOrders = purchases.active();
+        long completedOrders = purchases.count(OrderState.COMPLETED);
+        double totalSpent = purchases.amount(OrderState.COMPLETED);
 
         ConsumerDashboardResponse.ConsumerStats stats = new ConsumerDashboardResponse.ConsumerStats(
-                purchases.size(), activeOrders, completedOrders, totalSpent, purchases.size()
+                purchases.total(), activeOrders, completedOrders, totalSpent, purchases.total()
         );
 
         // Purchase history
-        List<ConsumerDashboardResponse.PurchaseHistory> purchaseHistory = purchases.stream()
-                .limit(20)
+        List<ConsumerDashboardResponse.PurchaseHistory> purchaseHistory = orderRepository
+                .findByBuyerOrderByCreatedAtDesc(user, PURCHASE_HISTORY).stream()
                 .map(o -> new ConsumerDashboardResponse.PurchaseHistory(
                         o.getId(),
                         o.getCrop().getCropName(),
@@ -186,8 +169,8 @@ public class DashboardService {
                 .collect(Collectors.toList());
 
         // Traceable items
-        List<ConsumerDashboardResponse.TraceableItem> traceableItems = purchases.stream()
-                .filter(o -> o.getOrderState() == OrderState.COMPLETED)
+        List<ConsumerDashboardResponse.TraceableItem> traceableItems = orderRepository
+                .findByBuyerAndOrderStateOrderByCreatedAtDesc(user, OrderState.COMPLETED, TRACEABLE_ITEMS).stream()
                 .map(o -> new ConsumerDashboardResponse.TraceableItem(
                         o.getCrop().getBlockchainHash(),
                         o.getCrop().getCropName(),
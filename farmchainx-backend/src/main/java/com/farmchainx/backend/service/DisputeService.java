@@ -4,10 +4,12 @@ import com.farmchainx.backend.entity.Crop;
 import com.farmchainx.backend.entity.Dispute;
 import com.farmchainx.backend.entity.Order;
 import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.event.DisputeStatusChangedEvent;
 import com.farmchainx.backend.repository.CropRepository;
 import com.farmchainx.backend.repository.DisputeRepository;
 import com.farmchainx.backend.repository.OrderRepository;
 import com.farmchainx.backend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,13 +25,16 @@ public class DisputeService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DisputeService(DisputeRepository disputeRepository, CropRepository cropRepository, OrderRepository orderRepository, UserRepository userRepository, AuditService auditService) {
+    public DisputeService(DisputeRepository disputeRepository, CropRepository cropRepository, OrderRepository orderRepository, UserRepository userRepository, AuditService auditService,
+                          ApplicationEventPublisher eventPublisher) {
         this.disputeRepository = disputeRepository;
         this.cropRepository = cropRepository;
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.auditService = auditService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -44,6 +49,7 @@ public class DisputeService {
         dispute.setDescription(description);
         dispute.setStatus("OPEN");
         Dispute saved = disputeRepository.save(dispute);
+        eventPublisher.publishEvent(DisputeStatusChangedEvent.of(saved, null));
         auditService.logAction("DISPUTE_RAISED", user, "Dispute ID: " + saved.getId() + ", Crop ID: " + cropId + ", Order ID: " + orderId);
         return saved;
     }
@@ -56,12 +62,14 @@ public class DisputeService {
             throw new RuntimeException("Dispute is already resolved or closed");
         }
 
+        String previousStatus = dispute.getStatus();
         dispute.setStatus("RESOLVED");
         dispute.setResolvedAt(LocalDateTime.now());
         dispute.setResolution(resolution);
         dispute.setAdminNotes(adminNotes);
 
         Dispute saved = disputeRepository.save(dispute);
+        eventPublisher.publishEvent(DisputeStatusChangedEvent.of(saved, previousStatus));
         auditService.logAction("DISPUTE_RESOLVED", dispute.getRaisedBy(), "Dispute ID: " + disputeId + ", Resolution: " + resolution);
         return saved;
     }
@@ -70,11 +78,13 @@ public class DisputeService {
     public Dispute escalateDispute(Long disputeId, String escalationReason) {
         Dispute dispute = disputeRepository.findById(disputeId).orElseThrow(() -> new RuntimeException("Dispute not found"));
 
+        String previousStatus = dispute.getStatus();
         dispute.setStatus("ESCALATED");
         dispute.setEscalatedAt(LocalDateTime.now());
         dispute.setEscalationReason(escalationReason);
 
         Dispute saved = disputeRepository.save(dispute);
+        eventPublisher.publishEvent(DisputeStatusChangedEvent.of(saved, previousStatus));
         auditService.logAction("DISPUTE_ESCALATED", dispute.getRaisedBy(), "Dispute ID: " + disputeId);
         return saved;
     }
@@ -83,11 +93,13 @@ public class DisputeService {
     public Dispute closeDispute(Long disputeId, String closureReason) {
         Dispute dispute = disputeRepository.findById(disputeId).orElseThrow(() -> new RuntimeException("Dispute not found"));
 
+        String previousStatus = dispute.getStatus();
         dispute.setStatus("CLOSED");
         dispute.setClosedAt(LocalDateTime.now());
         dispute.setClosureReason(closureReason);
 
         Dispute saved = disputeRepository.save(dispute);
+        eventPublisher.publishEvent(DisputeStatusChangedEvent.of(saved, previousStatus));
         auditService.logAction("DISPUTE_CLOSED", dispute.getRaisedBy(), "Dispute ID: " + disputeId);
         return saved;
     }
@@ -0,0 +1,237 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.common.tx.RebuildGate;
+import com.farmchainx.backend.dto.CropView;
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.enums.Status;
+import com.farmchainx.backend.event.CropChangedEvent;
+import com.farmchainx.backend.event.UserChangedEvent;
+import com.farmchainx.backend.repository.CropRepository;
+import com.farmchainx.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Read model behind /marketplace/crops/listed and /marketplace/stats.
+ *
+ * Listed crops are kept sorted newest first and counters are kept in
+ * memory; both are updated one crop at a time from CropChangedEvent once
+ * the change has committed. Writers are serialized and publish a new
+ * immutable Snapshot through a volatile field after every change, so
+ * readers never lock or sort. The listed crops of a snapshot are copied
+ * once, by its first reader, not on every change. The snapshot version
+ * doubles as ETag.
+ *
+ * The full load runs under a RebuildGate, so a change committed while it
+ * reads is applied after it instead of being overwritten by it.
+ */
+@Component
+public class MarketplaceReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketplaceReadModel.class);
+
+    // Newest first, same order as the paged endpoints
+    private static final Comparator<CropView> NEWEST_FIRST = Comparator
+            .comparing(CropView::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(CropView::getId, Comparator.reverseOrder());
+
+    private final CropRepository cropRepository;
+    private final UserRepository userRepository;
+    private final RebuildGate gate = new RebuildGate();
+
+    // Only touched by writers, under writeLock; readers use the published snapshot
+    private final Object writeLock = new Object();
+    private final NavigableSet<CropView> listed = new TreeSet<>(NEWEST_FIRST);
+    private final Map<Long, CropView> listedById = new HashMap<>();
+    private final long[] cropsByState = new long[CropState.values().length];
+    private UserCounts userCounts = new UserCounts(0, 0, 0);
+    private long version;
+    // Newest change per crop whose view is still being loaded
+    private long changeSeq;
+    private final Map<Long, Long> latestChange = new HashMap<>();
+
+    // Unique per process so ETags from before a restart never match
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+    private volatile Snapshot snapshot;
+
+    public MarketplaceReadModel(CropRepository cropRepository, UserRepository userRepository) {
+        this.cropRepository = cropRepository;
+        this.userRepository = userRepository;
+        this.snapshot = buildSnapshot();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int loaded = gate.exclusive(() -> {
+            List<CropView> fresh = cropRepository.findListedViews();
+            long[] counts = new long[CropState.values().length];
+            for (Object[] row : cropRepository.countGroupedByState()) {
+                counts[((CropState) row[0]).ordinal()] = (Long) row[1];
+            }
+            UserCounts users = loadUserCounts();
+
+            synchronized (writeLock) {
+                listed.clear();
+                listedById.clear();
+                fresh.forEach(this::putListed);
+                System.arraycopy(counts, 0, cropsByState, 0, counts.length);
+                userCounts = users;
+                publish();
+            }
+            return fresh.size();
+        });
+        logger.info("Marketplace read model loaded with {} listed crops", loaded);
+    }
+
+    @EventListener
+    public void onCropChanged(CropChangedEvent event) {
+        gate.afterCommit(() -> apply(event));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        gate.afterCommit(() -> {
+            UserCounts users = loadUserCounts();
+            synchronized (writeLock) {
+                userCounts = users;
+                publish();
+            }
+        });
+    }
+
+    private void apply(CropChangedEvent event) {
+        Long cropId = event.getCropId();
+        long seq;
+        synchronized (writeLock) {
+            seq = ++changeSeq;
+            latestChange.put(cropId, seq);
+        }
+
+        // Loaded outside writeLock so changes of other crops don't wait on it
+        Optional<CropView> view = event.getToState() == CropState.LISTED
+                ? cropRepository.findListedViewById(cropId)
+                : Optional.empty();
+
+        synchronized (writeLock) {
+            if (event.getFromState() != null) {
+                cropsByState[event.getFromState().ordinal()]--;
+            }
+            if (event.getToState() != null) {
+                cropsByState[event.getToState().ordinal()]++;
+            }
+            // A later change of the same crop loaded at least as recent a view; it decides
+            if (latestChange.get(cropId) == seq) {
+                latestChange.remove(cropId);
+                removeListed(cropId);
+                view.ifPresent(this::putListed);
+            }
+            publish();
+        }
+    }
+
+    /**
+     * Current snapshot; a volatile read. Its listed crops may not be copied
+     * yet, use listed() for those.
+     */
+    public Snapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Current snapshot with its listed crops; the first reader of each
+     * version copies them
+     */
+    public Snapshot listed() {
+        Snapshot s = snapshot;
+        if (s.listedCrops != null) {
+            return s;
+        }
+        synchronized (writeLock) {
+            s = snapshot;
+            if (s.listedCrops == null) {
+                s.listedCrops = List.copyOf(listed);
+            }
+            return s;
+        }
+    }
+
+    private void putListed(CropView view) {
+        removeListed(view.getId());
+        listed.add(view);
+        listedById.put(view.getId(), view);
+    }
+
+    private void removeListed(Long cropId) {
+        CropView previous = listedById.remove(cropId);
+        if (previous != null) {
+            listed.remove(previous);
+        }
+    }
+
+    // Called by writers holding writeLock
+    private void publish() {
+        version++;
+        snapshot = buildSnapshot();
+    }
+
+    private Snapshot buildSnapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalListedCrops", (long) listed.size());
+        stats.put("totalCreatedCrops", cropsByState[CropState.CREATED.ordinal()]);
+        stats.put("totalOrderedCrops", cropsByState[CropState.ORDERED.ordinal()]);
+        stats.put("totalActiveFarmers", userCounts.activeFarmers);
+        stats.put("totalDistributors", userCounts.distributors);
+        stats.put("totalRetailers", userCounts.retailers);
+
+        String etag = "W/\"" + instanceTag + "-" + version + "\"";
+        return new Snapshot(version, etag, Collections.unmodifiableMap(stats));
+    }
+
+    private UserCounts loadUserCounts() {
+        return new UserCounts(
+                userRepository.countByRoleAndStatus(Role.FARMER, Status.APPROVED),
+                userRepository.countByRole(Role.DISTRIBUTOR),
+                userRepository.countByRole(Role.RETAILER)
+        );
+    }
+
+    private static class UserCounts {
+        private final long activeFarmers;
+        private final long distributors;
+        private final long retailers;
+
+        UserCounts(long activeFarmers, long distributors, long retailers) {
+            this.activeFarmers = activeFarmers;
+            this.distributors = distributors;
+            this.retailers = retailers;
+        }
+    }
+
+    public static class Snapshot {
+        private final long version;
+        private final String etag;
+        private final Map<String, Object> stats;
+        // Set once under writeLock, while this is still the current snapshot
+        private volatile List<CropView> listedCrops;
+
+        Snapshot(long version, String etag, Map<String, Object> stats) {
+            this.version = version;
+            this.etag = etag;
+            this.stats = stats;
+        }
+
+        public long getVersion() { return version; }
+        public String getEtag() { return etag; }
+        /**
+         * Null unless obtained from listed()
+         */
+        public List<CropView> getListedCrops() { return listedCrops; }
+        public Map<String, Object> getStats() { return stats; }
+    }
+}
@@ -0,0 +1,166 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.event.NotificationRequestedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes requested notifications in the background.
+ *
+ * Requests are queued once the publishing transaction has committed, so
+ * order and crop transactions never wait on the notification tables. A
+ * single writer drains the queue in batches of up to batch-size, one
+ * transaction per batch, retrying a failed batch with backoff. A batch that
+ * still fails is split in halves until the requests that cannot be stored
+ * are isolated; only those are dropped. The queue
+ * is bounded: when the store falls that far behind, new requests are
+ * dropped (and counted) instead of slowing down the callers.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final NotificationService notificationService;
+    private final BlockingQueue<NotificationRequestedEvent> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    public NotificationDispatcher(NotificationService notificationService,
+                                  @Value("${notifications.dispatch.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${notifications.dispatch.batch-size:100}") int batchSize,
+                                  @Value("${notifications.dispatch.max-attempts:3}") int maxAttempts,
+                                  @Value("${notifications.dispatch.retry-backoff-ms:500}") long retryBackoffMillis,
+                                  MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.dropped = Counter.builder("notifications.dispatch.dropped")
+                .description("Notifications dropped because the dispatch queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("notifications.dispatch.failed")
+                .description("Notifications not stored after all retries")
+                .register(meterRegistry);
+        Gauge.builder("notifications.dispatch.queued", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        writer.execute(this::run);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationRequested(NotificationRequestedEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+            logger.warn("Notification queue full, dropped {} for {}", event.getType(), event.getUserEmail());
+        }
+    }
+
+    private void run() {
+        List<NotificationRequestedEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                NotificationRequestedEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                store(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void store(List<NotificationRequestedEvent> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                notificationService.storeBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("Notification batch of {} failed {} times, storing it in parts: {}",
+                            batch.size(), attempt, e.getMessage());
+                    storeInParts(batch);
+                    return;
+                }
+                logger.warn("Notification batch failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                Thread.sleep(retryBackoffMillis * attempt);
+            }
+        }
+    }
+
+    /**
+     * Stores each half on its own, splitting further whatever fails, so one
+     * request that can never be stored (e.g. its user was deleted) does not
+     * take the rest of the batch with it
+     */
+    private void storeInParts(List<NotificationRequestedEvent> batch) {
+        int half = batch.size() / 2;
+        storeOrSplit(batch.subList(0, half));
+        storeOrSplit(batch.subList(half, batch.size()));
+    }
+
+    private void storeOrSplit(List<NotificationRequestedEvent> part) {
+        if (part.isEmpty()) {
+            return;
+        }
+        try {
+            notificationService.storeBatch(part);
+        } catch (RuntimeException e) {
+            if (part.size() > 1) {
+                storeInParts(part);
+                return;
+            }
+            NotificationRequestedEvent request = part.get(0);
+            failed.increment();
+            logger.error("Dropping {} notification for {}: {}", request.getType(), request.getUserEmail(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the writer and stores whatever is still queued
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+        }
+        List<NotificationRequestedEvent> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            storeOrSplit(rest.subList(i, Math.min(i + batchSize, rest.size())));
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.NotificationView;
+import com.farmchainx.backend.enums.Role;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Open Server-Sent Events connections per user.
+ *
+ * Connections are servlet async requests, so an idle one holds a socket but
+ * no thread. Events go into a small bounded queue per connection and are
+ * written by the push pool; a client that falls behind is disconnected
+ * rather than buffered, and catches up by reconnecting with Last-Event-ID.
+ */
+@Service
+public class NotificationPushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPushService.class);
+
+    // Notification ids a connection remembers, to drop one delivered both live and by replay
+    private static final int RECENT_IDS = 256;
+
+    private final Executor pushExecutor;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final int maxPerUser;
+
+    private final Map<String, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    public NotificationPushService(@Qualifier("notificationPushExecutor") Executor pushExecutor,
+                                   @Value("${notifications.push.timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${notifications.push.queue-capacity:64}") int queueCapacity,
+                                   @Value("${notifications.push.max-per-user:5}") int maxPerUser,
+                                   MeterRegistry meterRegistry) {
+        this.pushExecutor = pushExecutor;
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = queueCapacity;
+        this.maxPerUser = maxPerUser;
+        Gauge.builder("notifications.push.connections", connectionCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a new connection; the user's oldest one is closed beyond max-per-user
+     */
+    public Connection open(String userEmail, Role role) {
+        Connection connection = new Connection(userEmail, role, new SseEmitter(timeoutMillis));
+        List<Connection> userConnections = connections.compute(userEmail, (email, list) -> {
+            List<Connection> l = list != null ? list : new CopyOnWriteArrayList<>();
+            l.add(connection);
+            return l;
+        });
+        connectionCount.incrementAndGet();
+        while (userConnections.size() > maxPerUser) {
+            userConnections.get(0).close();
+        }
+        return connection;
+    }
+
+    public boolean isConnected(String userEmail) {
+        return connections.containsKey(userEmail);
+    }
+
+    /**
+     * Role the user's streams were opened with, or null when not connected
+     */
+    public Role roleOf(String userEmail) {
+        List<Connection> list = connections.get(userEmail);
+        return list == null || list.isEmpty() ? null : list.get(0).role;
+    }
+
+    /**
+     * Users with an open stream of the role (everyone connected when role is null)
+     */
+    public List<String> connectedUsers(Role role) {
+        List<String> emails = new ArrayList<>();
+        connections.forEach((email, list) -> {
+            if (role == null || list.stream().anyMatch(c -> c.role == role)) {
+                emails.add(email);
+            }
+        });
+        return emails;
+    }
+
+    /**
+     * Sends a broadcast to every open stream of the role (everyone when role is null)
+     */
+    public void publishToRole(Role role, NotificationView broadcast) {
+        connections.values().forEach(list -> list.forEach(c -> {
+            if (role == null || role == c.role) {
+                c.offer(SseEmitter.event().name("broadcast").data(broadcast));
+            }
+        }));
+    }
+
+    public void publish(String userEmail, NotificationView notification) {
+        forEach(userEmail, c -> c.sendNotification(notification));
+    }
+
+    public void publishUnreadCount(String userEmail, long count) {
+        forEach(userEmail, c -> c.sendUnreadCount(count));
+    }
+
+    /**
+     * Keeps proxies and load balancers from closing idle streams, and finds dead sockets
+     */
+    @Scheduled(fixedDelayString = "${notifications.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connections.values().forEach(list -> list.forEach(c -> c.offer(SseEmitter.event().comment("keep-alive"))));
+    }
+
+    private void forEach(String userEmail, Consumer<Connection> action) {
+        List<Connection> list = connections.get(userEmail);
+        if (list != null) {
+            list.forEach(action);
+        }
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userEmail, (email, list) -> {
+            if (list.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * One open stream. Events are queued and written in order by a single
+     * drain task at a time.
+     */
+    public class Connection {
+        private final String userEmail;
+        private final Role role;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final Set<Long> recentIds = Collections.newSetFromMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > RECENT_IDS;
+            }
+        });
+        private volatile boolean closed;
+
+        Connection(String userEmail, Role role, SseEmitter emitter) {
+            this.userEmail = userEmail;
+            this.role = role;
+            this.emitter = emitter;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        public void sendNotification(NotificationView notification) {
+            synchronized (recentIds) {
+                if (!recentIds.add(notification.getId())) {
+                    return;
+                }
+            }
+            offer(SseEmitter.event().id(String.valueOf(notification.getId())).name("notification").data(notification));
+        }
+
+        public void sendUnreadCount(long count) {
+            offer(SseEmitter.event().name("unread-count").data(Map.of("count", count)));
+        }
+
+        /**
+         * Tells the client that more was missed than can be replayed; it should reload its feed
+         */
+        public void sendReset() {
+            offer(SseEmitter.event().name("reset").data(Map.of()));
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.debug("Push queue full for {}, disconnecting", userEmail);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                pushExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (Exception e) {
+                // Client went away
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the last poll but before the flag was cleared
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // Already completed by the container
+            }
+        }
+    }
+}
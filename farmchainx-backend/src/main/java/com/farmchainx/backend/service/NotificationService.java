@@ -1,115 +1,472 @@
 package com.farmchainx.backend.service;
 
+import com.farmchainx.backend.common.dto.KeysetPage;
+import com.farmchainx.backend.dto.NotificationView;
+import com.farmchainx.backend.entity.BroadcastNotification;
+import com.farmchainx.backend.entity.Notification;
+import com.farmchainx.backend.entity.NotificationReadState;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.event.NotificationRequestedEvent;
+import com.farmchainx.backend.event.UserChangedEvent;
+import com.farmchainx.backend.repository.NotificationReadStateRepository;
+import com.farmchainx.backend.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
+/**
+ * Notifications are stored in the notifications table; the newest few per
+ * user are also kept in memory (write-through), so the first page of a
+ * feed, which is what clients poll, does not hit the database.
+ *
+ * Unread counts are a per-user counter maintained with every insert and
+ * read, and "mark all read" only moves a per-user timestamp watermark;
+ * neither touches more than one row.
+ *
+ * Committed changes are also pushed to the user's open streams, so clients
+ * do not need to poll.
+ *
+ * The send* methods only publish a NotificationRequestedEvent; rows are
+ * written in batches by NotificationDispatcher after the caller commits,
+ * off the caller's transaction.
+ *
+ * System notifications are role-wide broadcasts stored once and merged into
+ * each recipient's feed and unread count when read (see BroadcastService);
+ * reading them only moves a per-user broadcast watermark.
+ */
 @Service
 public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
-    // In-memory storage for demo purposes. In production, use database
-    private final Map<String, List<Notification>> userNotifications = new ConcurrentHashMap<>();
+    // Most notifications replayed on reconnect; beyond that the client is told to reload
+    private static final int MAX_REPLAY = 100;
+
+    private static final Comparator<NotificationView> NEWEST_FIRST = Comparator
+            .comparing(NotificationView::getCreatedAt).thenComparing(NotificationView::getId).reversed();
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationReadStateRepository readStateRepository;
+    private final NotificationPushService pushService;
+    private final BroadcastService broadcastService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int recentPerUser;
+    private final int maxCachedUsers;
+
+    private final Map<String, RecentNotifications> recent = new ConcurrentHashMap<>();
+
+    private final ExecutorService materializer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "broadcast-materialize");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public NotificationService(NotificationRepository notificationRepository,
+                               NotificationReadStateRepository readStateRepository,
+                               NotificationPushService pushService,
+                               BroadcastService broadcastService,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${notifications.cache.recent-per-user:50}") int recentPerUser,
+                               @Value("${notifications.cache.max-users:10000}") int maxCachedUsers) {
+        this.notificationRepository = notificationRepository;
+        this.readStateRepository = readStateRepository;
+        this.pushService = pushService;
+        this.broadcastService = broadcastService;
+        this.eventPublisher = eventPublisher;
+        this.recentPerUser = recentPerUser;
+        this.maxCachedUsers = maxCachedUsers;
+    }
 
     public void sendOrderNotification(User user, String orderAction, String orderId, String cropName) {
         String message = String.format("Order %s for crop '%s' (ID: %s)", orderAction, cropName, orderId);
-        createNotification(user.getEmail(), "ORDER_UPDATE", message, "info");
+        eventPublisher.publishEvent(NotificationRequestedEvent.of(user, "ORDER_UPDATE", message, "info"));
     }
 
     public void sendDisputeNotification(User user, String disputeAction, String disputeId) {
         String message = String.format("Dispute %s (ID: %s)", disputeAction, disputeId);
-        createNotification(user.getEmail(), "DISPUTE_UPDATE", message, "warning");
+        eventPublisher.publishEvent(NotificationRequestedEvent.of(user, "DISPUTE_UPDATE", message, "warning"));
     }
 
     public void sendCropNotification(User user, String cropAction, String cropId, String cropName) {
         String message = String.format("Crop '%s' %s (ID: %s)", cropName, cropAction, cropId);
-        createNotification(user.getEmail(), "CROP_UPDATE", message, "success");
+        eventPublisher.publishEvent(NotificationRequestedEvent.of(user, "CROP_UPDATE", message, "success"));
     }
 
     public void sendStatusNotification(User user, String newStatus) {
         String message = String.format("Your account status has been updated to: %s", newStatus);
-        createNotification(user.getEmail(), "STATUS_UPDATE", message, "info");
+        eventPublisher.publishEvent(NotificationRequestedEvent.of(user, "STATUS_UPDATE", message, "info"));
     }
 
     public void sendSystemNotification(String message, Role targetRole) {
-        // This would send to all users with specific role
-        logger.info("System notification to {} users: {}", targetRole, message);
-        // Implementation would query users by role and send notifications
+        sendSystemNotification(message, targetRole, "info", false);
+    }
+
+    /**
+     * Sends to every user of targetRole (everyone when null). By default the
+     * broadcast is stored once; with materialize it is copied into each
+     * recipient's notifications by a background job, chunk by chunk.
+     */
+    @Transactional
+    public BroadcastNotification sendSystemNotification(String message, Role targetRole, String priority,
+                                                        boolean materialize) {
+        BroadcastNotification saved = broadcastService.save(
+                new BroadcastNotification(targetRole, message, priority, materialize));
+        afterCommit(() -> {
+            if (materialize) {
+                materializer.execute(() -> materialize(saved));
+            } else {
+                broadcastService.refresh();
+                pushService.publishToRole(targetRole, NotificationView.of(saved));
+                // One counter read per connected recipient; kept off the sender's request
+                materializer.execute(() -> pushService.connectedUsers(targetRole).forEach(this::pushUnreadCount));
+            }
+        });
+        logger.info("System notification {} to {} users: {}", saved.getId(),
+                targetRole != null ? targetRole : "all", message);
+        return saved;
+    }
+
+    private void materialize(BroadcastNotification broadcast) {
+        long start = System.currentTimeMillis();
+        try {
+            long total = broadcastService.materialize(broadcast, emails -> emails.forEach(email -> {
+                // Cached feeds are reloaded with the new row on their next read
+                recent.remove(email);
+                pushUnreadCount(email);
+            }));
+            logger.info("Broadcast {} materialized for {} user(s) in {} ms", broadcast.getId(), total,
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Materializing broadcast {} failed: {}", broadcast.getId(), e.getMessage());
+        }
     }
 
-    public List<Notification> getUserNotifications(String userEmail) {
-        return userNotifications.getOrDefault(userEmail, new ArrayList<>());
+    /**
+     * A new user has seen no broadcast yet, so none sent before signup counts as unread
+     */
+    @EventListener
+    @Transactional
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isNewUser()) {
+            readStateRepository.createIfAbsent(event.getEmail());
+            readStateRepository.markBroadcastsRead(event.getEmail(),
+                    event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now());
+        }
     }
 
-    public List<Notification> getUnreadNotifications(String userEmail) {
-        return getUserNotifications(userEmail).stream()
-                .filter(n -> !n.isRead())
+    /**
+     * Newest first, personal notifications merged with the role's broadcasts;
+     * pass nextCreatedAt/nextId of the previous page as the cursor
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<NotificationView> getUserNotifications(String userEmail, Role role, LocalDateTime afterCreatedAt,
+                                                             Long afterId, int size) {
+        // The cache load must be this transaction's first read: an earlier one would fix the
+        // InnoDB snapshot, and rows committed (and skipped by the cache) since would be missed
+        boolean firstPage = afterCreatedAt == null && size <= recentPerUser;
+        RecentNotifications cached = firstPage ? recentFor(userEmail) : null;
+        NotificationReadState state = readStateRepository.findById(userEmail).orElse(null);
+        List<NotificationView> broadcasts = withWatermark(
+                broadcastService.page(role, afterCreatedAt, afterId, size + 1), broadcastWatermark(state));
+        if (firstPage) {
+            KeysetPage<NotificationView> personal = cached.firstPage(size);
+            return merge(personal.getItems(), personal.isHasMore(), broadcasts, size);
+        }
+        List<NotificationView> rows = notificationRepository.findPage(userEmail, afterCreatedAt,
+                cursorId(afterCreatedAt, afterId), PageRequest.of(0, size + 1));
+        return merge(withWatermark(rows, state != null ? state.getReadAllBefore() : null), false, broadcasts, size);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<NotificationView> getUnreadNotifications(String userEmail, Role role, LocalDateTime afterCreatedAt,
+                                                               Long afterId, int size) {
+        NotificationReadState state = readStateRepository.findById(userEmail).orElse(null);
+        LocalDateTime watermark = broadcastWatermark(state);
+        // Newest first, so the unread broadcasts are a prefix of the page
+        List<NotificationView> broadcasts = broadcastService.page(role, afterCreatedAt, afterId, size + 1).stream()
+                .takeWhile(b -> watermark == null || b.getCreatedAt().isAfter(watermark))
                 .toList();
+        List<NotificationView> rows = notificationRepository.findUnreadPage(userEmail,
+                state != null ? state.getReadAllBefore() : null, afterCreatedAt,
+                cursorId(afterCreatedAt, afterId), PageRequest.of(0, size + 1));
+        return merge(rows, false, broadcasts, size);
     }
 
-    public void markAsRead(String userEmail, String notificationId) {
-        List<Notification> notifications = userNotifications.get(userEmail);
-        if (notifications != null) {
-            notifications.stream()
-                    .filter(n -> n.getId().equals(notificationId))
-                    .findFirst()
-                    .ifPresent(n -> n.setRead(true));
+    /**
+     * The personal counter (one primary-key read) plus broadcasts newer than
+     * the broadcast watermark. The counter is created on first use for users
+     * whose notifications predate it.
+     */
+    @Transactional
+    public long countUnread(String userEmail, Role role) {
+        NotificationReadState state = readStateRepository.findById(userEmail).orElse(null);
+        if (state == null) {
+            readStateRepository.createIfAbsent(userEmail);
+            state = readStateRepository.findById(userEmail).orElse(null);
         }
+        return unreadCount(state, role);
+    }
+
+    private long unreadCount(NotificationReadState state, Role role) {
+        return (state != null ? state.getUnreadCount() : 0)
+                + broadcastService.countNewer(role, broadcastWatermark(state));
     }
 
+    /**
+     * Marks the broadcast and every older one read for this user. Returns
+     * false if the user does not receive such a broadcast.
+     */
+    @Transactional
+    public boolean markBroadcastRead(String userEmail, Role role, Long broadcastId) {
+        BroadcastNotification broadcast = broadcastService.find(broadcastId).orElse(null);
+        if (broadcast == null || broadcast.isMaterialized() || !broadcast.targets(role)) {
+            return false;
+        }
+        readStateRepository.createIfAbsent(userEmail);
+        readStateRepository.markBroadcastsRead(userEmail, broadcast.getCreatedAt());
+        afterCommit(() -> pushUnreadCount(userEmail));
+        return true;
+    }
+
+    /**
+     * Returns false if the user has no such notification
+     */
+    @Transactional
+    public boolean markAsRead(String userEmail, Long notificationId) {
+        if (notificationRepository.markRead(userEmail, notificationId, readAllBefore(userEmail)) == 0) {
+            // Already read, or not this user's
+            return notificationRepository.existsByIdAndUserEmail(notificationId, userEmail);
+        }
+        readStateRepository.decrementUnread(userEmail);
+        afterCommit(() -> {
+            recent.computeIfPresent(userEmail, (email, r) -> r.markRead(notificationId));
+            pushUnreadCount(userEmail);
+        });
+        return true;
+    }
+
+    /**
+     * Records a watermark instead of updating every unread row; it covers broadcasts too
+     */
+    @Transactional
     public void markAllAsRead(String userEmail) {
-        List<Notification> notifications = userNotifications.get(userEmail);
-        if (notifications != null) {
-            notifications.forEach(n -> n.setRead(true));
-        }
-    }
-
-    private void createNotification(String userEmail, String type, String message, String priority) {
-        Notification notification = new Notification(
-                java.util.UUID.randomUUID().toString(),
-                type,
-                message,
-                priority,
-                LocalDateTime.now(),
-                false
-        );
-
-        userNotifications.computeIfAbsent(userEmail, k -> new ArrayList<>()).add(notification);
-        logger.info("Notification created for {}: {}", userEmail, message);
-    }
-
-    public static class Notification {
-        private String id;
-        private String type;
-        private String message;
-        private String priority;
-        private LocalDateTime createdAt;
-        private boolean read;
-
-        public Notification(String id, String type, String message, String priority, LocalDateTime createdAt, boolean read) {
-            this.id = id;
-            this.type = type;
-            this.message = message;
-            this.priority = priority;
-            this.createdAt = createdAt;
-            this.read = read;
-        }
-
-        // Getters and setters
-        public String getId() { return id; }
-        public String getType() { return type; }
-        public String getMessage() { return message; }
-        public String getPriority() { return priority; }
-        public LocalDateTime getCreatedAt() { return createdAt; }
-        public boolean isRead() { return read; }
-        public void setRead(boolean read) { this.read = read; }
+        readStateRepository.markAllRead(userEmail, LocalDateTime.now());
+        afterCommit(() -> {
+            recent.computeIfPresent(userEmail, (email, r) -> r.markAllRead());
+            pushUnreadCount(userEmail);
+        });
+    }
+
+    /**
+     * Opens a push stream. With lastEventId (the id of the last notification
+     * the client received) everything created since is replayed first.
+     */
+    @Transactional
+    public SseEmitter openStream(String userEmail, Role role, Long lastEventId) {
+        // Registered before replaying so nothing created meanwhile is missed; duplicates are dropped by id
+        NotificationPushService.Connection connection = pushService.open(userEmail, role);
+        if (lastEventId != null) {
+            List<NotificationView> missed = withWatermark(notificationRepository.findAfterId(userEmail, lastEventId,
+                    PageRequest.of(0, MAX_REPLAY + 1)), readAllBefore(userEmail));
+            if (missed.size() > MAX_REPLAY) {
+                connection.sendReset();
+            } else {
+                missed.forEach(connection::sendNotification);
+            }
+        }
+        connection.sendUnreadCount(countUnread(userEmail, role));
+        return connection.getEmitter();
+    }
+
+    private void pushUnreadCount(String userEmail) {
+        if (pushService.isConnected(userEmail)) {
+            NotificationReadState state = readStateRepository.findById(userEmail).orElse(null);
+            pushService.publishUnreadCount(userEmail, unreadCount(state, pushService.roleOf(userEmail)));
+        }
+    }
+
+    /**
+     * Stores a batch of notifications in one transaction, each with its
+     * unread count increment. Caches and open streams are updated only
+     * once the batch has committed.
+     */
+    @Transactional
+    public void storeBatch(List<NotificationRequestedEvent> batch) {
+        for (NotificationRequestedEvent request : batch) {
+            Notification saved = notificationRepository.save(new Notification(request.getUserId(), request.getUserEmail(),
+                    request.getType(), request.getMessage(), request.getPriority(), request.getCreatedAt()));
+            String email = request.getUserEmail();
+            if (readStateRepository.existsById(email)) {
+                readStateRepository.incrementUnread(email, saved.getCreatedAt());
+            } else {
+                readStateRepository.initializeUnread(email, saved.getCreatedAt());
+            }
+            // Only users with a cached feed are updated; others load it from the table on their next read
+            NotificationView view = NotificationView.of(saved);
+            afterCommit(() -> {
+                recent.computeIfPresent(email, (e, r) -> r.add(view));
+                if (pushService.isConnected(email)) {
+                    pushService.publish(email, view);
+                    pushUnreadCount(email);
+                }
+            });
+        }
+        logger.debug("Stored {} notification(s)", batch.size());
+    }
+
+    // The cache must never show a row that a rollback removed
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Loading under computeIfAbsent makes a concurrent add wait for the load instead of being lost
+    private RecentNotifications recentFor(String userEmail) {
+        RecentNotifications r = recent.get(userEmail);
+        if (r == null) {
+            if (recent.size() >= maxCachedUsers) {
+                evictLeastRecentlyUsed();
+            }
+            r = recent.computeIfAbsent(userEmail, email -> new RecentNotifications(withWatermark(
+                    notificationRepository.findPage(email, null, null, PageRequest.of(0, recentPerUser + 1)),
+                    readAllBefore(email))));
+        }
+        return r;
+    }
+
+    // Drops the least recently read tenth of the cached feeds
+    private void evictLeastRecentlyUsed() {
+        List<Map.Entry<String, RecentNotifications>> entries = new ArrayList<>(recent.entrySet());
+        entries.sort(Comparator.comparingLong(e -> e.getValue().lastRead));
+        for (int i = 0; i < Math.max(1, entries.size() / 10); i++) {
+            recent.remove(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        materializer.shutdownNow();
+    }
+
+    private LocalDateTime readAllBefore(String userEmail) {
+        return readStateRepository.findById(userEmail).map(NotificationReadState::getReadAllBefore).orElse(null);
+    }
+
+    private static List<NotificationView> withWatermark(List<NotificationView> rows, LocalDateTime readAllBefore) {
+        if (readAllBefore == null) {
+            return rows;
+        }
+        return rows.stream().map(n -> n.getCreatedAt().isAfter(readAllBefore) ? n : n.asRead()).toList();
+    }
+
+    private static LocalDateTime broadcastWatermark(NotificationReadState state) {
+        return state != null ? state.broadcastWatermark() : null;
+    }
+
+    private static Long cursorId(LocalDateTime afterCreatedAt, Long afterId) {
+        return afterCreatedAt != null && afterId == null ? Long.MAX_VALUE : afterId;
+    }
+
+    // rows holds up to size + 1 items; the extra one only signals another page
+    private static KeysetPage<NotificationView> page(List<NotificationView> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<NotificationView> items = hasMore ? rows.subList(0, size) : rows;
+        NotificationView last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return new KeysetPage<>(items, hasMore,
+                hasMore ? last.getCreatedAt() : null,
+                hasMore ? last.getId() : null);
+    }
+
+    /**
+     * Merges personal rows with broadcast rows (each newest first, up to
+     * size + 1). personalMore is set when personal rows exist beyond those given.
+     */
+    private static KeysetPage<NotificationView> merge(List<NotificationView> personal, boolean personalMore,
+                                                      List<NotificationView> broadcasts, int size) {
+        List<NotificationView> rows = Stream.concat(personal.stream(), broadcasts.stream()).sorted(NEWEST_FIRST).toList();
+        if (!personalMore || rows.size() > size) {
+            return page(rows, size);
+        }
+        List<NotificationView> items = rows;
+        NotificationView last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return new KeysetPage<>(items, last != null,
+                last != null ? last.getCreatedAt() : null,
+                last != null ? last.getId() : null);
+    }
+
+    /**
+     * The newest notifications of one user, newest first. complete is false
+     * once older notifications exist that are not held here.
+     */
+    private class RecentNotifications {
+        private final List<NotificationView> items;
+        private boolean complete;
+        private volatile long lastRead = System.currentTimeMillis();
+
+        RecentNotifications(List<NotificationView> loaded) {
+            this.complete = loaded.size() <= recentPerUser;
+            this.items = new ArrayList<>(complete ? loaded : loaded.subList(0, recentPerUser));
+        }
+
+        synchronized RecentNotifications add(NotificationView n) {
+            if (items.stream().anyMatch(i -> i.getId().equals(n.getId()))) {
+                return this;
+            }
+            items.add(n);
+            // Commits can finish out of creation order
+            items.sort(NEWEST_FIRST);
+            if (items.size() > recentPerUser) {
+                items.remove(items.size() - 1);
+                complete = false;
+            }
+            return this;
+        }
+
+        synchronized RecentNotifications markRead(Long id) {
+            items.replaceAll(n -> n.getId().equals(id) ? n.asRead() : n);
+            return this;
+        }
+
+        synchronized RecentNotifications markAllRead() {
+            items.replaceAll(NotificationView::asRead);
+            return this;
+        }
+
+        synchronized KeysetPage<NotificationView> firstPage(int size) {
+            lastRead = System.currentTimeMillis();
+            List<NotificationView> rows = new ArrayList<>(items.subList(0, Math.min(size, items.size())));
+            boolean hasMore = !rows.isEmpty() && (items.size() > size || !complete);
+            NotificationView last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            return new KeysetPage<>(rows, hasMore,
+                    hasMore ? last.getCreatedAt() : null,
+                    hasMore ? last.getId() : null);
+        }
     }
 }
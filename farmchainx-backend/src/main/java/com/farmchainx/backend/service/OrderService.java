@@ -1,5 +1,6 @@
 package com.farmchainx.backend.service;
 
+import com.farmchainx.backend.dto.OrderView;
 import com.farmchainx.backend.entity.Order;
 import com.farmchainx.backend.entity.Crop;
 import com.farmchainx.backend.entity.User;
@@ -8,11 +9,10 @@ import com.farmchainx.backend.enums.CropState;
 import com.farmchainx.backend.enums.Role;
 import com.farmchainx.backend.repository.OrderRepository;
 import com.farmchainx.backend.repository.CropRepository;
-import com.farmchainx.backend.repository.UserRepository;
+import com.farmchainx.backend.event.OrderStateChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.List;
 
@@ -21,27 +21,28 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final CropRepository cropRepository;
-    private final UserRepository userRepository;
     private final CropService cropService;
     private final AuditService auditService;
     private final NotificationService notificationService;
+    private final CurrentUser currentUser;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrderService(OrderRepository orderRepository, CropRepository cropRepository,
-                       UserRepository userRepository, CropService cropService,
-                       AuditService auditService, NotificationService notificationService) {
+                       CropService cropService,
+                       AuditService auditService, NotificationService notificationService,
+                       CurrentUser currentUser, ApplicationEventPublisher eventPublisher) {
         this.orderRepository = orderRepository;
         this.cropRepository = cropRepository;
-        this.userRepository = userRepository;
         this.cropService = cropService;
         this.auditService = auditService;
         this.notificationService = notificationService;
+        this.currentUser = currentUser;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
     public Order placeOrder(Long cropId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User buyer = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        User buyer = currentUser.get();
 
         Crop crop = cropRepository.findById(cropId).orElseThrow(() -> new RuntimeException("Crop not found"));
         if (crop.getCropState() != CropState.LISTED) {
@@ -54,6 +55,7 @@ public class OrderService {
         order.setSeller(crop.getCurrentOwner());
         order.setOrderState(OrderState.PLACED);
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStateChangedEvent.of(savedOrder, null));
         auditService.logAction("ORDER_PLACED", buyer, "Order ID: " + savedOrder.getId() + ", Crop ID: " + cropId);
 
         // Send notifications
@@ -65,17 +67,17 @@ public class OrderService {
 
     @Transactional
     public void acceptOrder(Long orderId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User seller = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        User seller = currentUser.get();
 
         Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
         if (!order.getSeller().equals(seller)) {
             throw new RuntimeException("Only seller can accept order");
         }
 
+        OrderState previousState = order.getOrderState();
         order.transitionTo(OrderState.ACCEPTED, seller);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStateChangedEvent.of(order, previousState));
         auditService.logAction("ORDER_ACCEPTED", seller, "Order ID: " + orderId);
 
         // Send notifications
@@ -91,17 +93,17 @@ public class OrderService {
 
     @Transactional
     public void shipOrder(Long orderId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User seller = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        User seller = currentUser.get();
 
         Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
         if (!order.getSeller().equals(seller) || order.getOrderState() != OrderState.ACCEPTED) {
             throw new RuntimeException("Invalid operation");
         }
 
+        OrderState previousState = order.getOrderState();
         order.transitionTo(OrderState.SHIPPED, seller);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStateChangedEvent.of(order, previousState));
         auditService.logAction("ORDER_SHIPPED", seller, "Order ID: " + orderId);
 
         // Transition crop to SHIPPED
@@ -113,17 +115,17 @@ public class OrderService {
 
     @Transactional
     public void completeOrder(Long orderId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User buyer = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        User buyer = currentUser.get();
 
         Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
         if (!order.getBuyer().equals(buyer) || order.getOrderState() != OrderState.SHIPPED) {
             throw new RuntimeException("Invalid operation");
         }
 
+        OrderState previousState = order.getOrderState();
         order.transitionTo(OrderState.COMPLETED, buyer);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStateChangedEvent.of(order, previousState));
         auditService.logAction("ORDER_COMPLETED", buyer, "Order ID: " + orderId);
 
         // Transfer ownership and transition crop to DELIVERED
@@ -137,9 +139,7 @@ public class OrderService {
 
     @Transactional
     public Order createOrder(Long cropId, Double requestedQuantity, Double offeredPrice, String deliveryAddress, String notes) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User buyer = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        User buyer = currentUser.get();
 
         Crop crop = cropRepository.findById(cropId).orElseThrow(() -> new RuntimeException("Crop not found"));
 
@@ -167,15 +167,14 @@ public class OrderService {
         order.setNotes(notes);
 
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStateChangedEvent.of(savedOrder, null));
         auditService.logAction("ORDER_CREATED", buyer, "Order ID: " + savedOrder.getId() + ", Crop ID: " + cropId);
         return savedOrder;
     }
 
     @Transactional
     public void cancelOrder(Long orderId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser.get();
 
         Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
 
@@ -192,8 +191,10 @@ public class OrderService {
             throw new RuntimeException("Cannot cancel order in current state");
         }
 
+        OrderState previousState = order.getOrderState();
         order.transitionTo(OrderState.CANCELLED, user);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStateChangedEvent.of(order, previousState));
         auditService.logAction("ORDER_CANCELLED", user, "Order ID: " + orderId);
 
         // If crop was in ORDERED state, revert to LISTED
@@ -205,27 +206,21 @@ public class OrderService {
         }
     }
 
-    public List<Order> getMyOrders() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+    public List<OrderView> getMyOrders() {
+        User user = currentUser.get();
 
-        return orderRepository.findByBuyerOrSeller(user, user);
+        return orderRepository.findViewsByParticipant(user.getId());
     }
 
-    public List<Order> getOrdersByStatus(OrderState state) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+    public List<OrderView> getOrdersByStatus(OrderState state) {
+        User user = currentUser.get();
 
-        return orderRepository.findByBuyerAndOrderStateOrSellerAndOrderState(user, state, user, state);
+        return orderRepository.findViewsByParticipantAndState(user.getId(), state);
     }
 
     @Transactional
     public void rejectOrder(Long orderId, String reason) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        User seller = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+        User seller = currentUser.get();
 
         Order order = orderRepository.findById(orderId).orElseThrow(() -> new RuntimeException("Order not found"));
 
@@ -236,6 +231,7 @@ public class OrderService {
         order.setRejectionReason(reason);
         order.transitionTo(OrderState.CANCELLED, seller);
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStateChangedEvent.of(order, OrderState.PLACED));
         auditService.logAction("ORDER_REJECTED", seller, "Order ID: " + orderId + ", Reason: " + reason);
     }
 
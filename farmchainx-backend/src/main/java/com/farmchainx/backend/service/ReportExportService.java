@@ -0,0 +1,247 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.enums.ExportFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams report datasets straight from the database to the response.
+ *
+ * Rows are scalar projections read through a forward-only MySQL cursor
+ * (fetch size Integer.MIN_VALUE) in a read-only transaction and written one
+ * at a time, so nothing is materialized and no entity enters the
+ * persistence context; heap use does not grow with the table size.
+ */
+@Service
+public class ReportExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Map<String, Dataset> DATASETS = new LinkedHashMap<>();
+
+    static {
+        DATASETS.put("users", new Dataset(
+                List.of("id", "email", "role", "status", "created_at"),
+                "SELECT u.id, u.email, u.role, u.status, u.createdAt FROM User u ORDER BY u.id"));
+        DATASETS.put("crops", new Dataset(
+                List.of("id", "crop_name", "quantity", "harvest_date", "location", "crop_state",
+                        "owner_email", "owner_role", "blockchain_hash", "created_at", "updated_at"),
+                "SELECT c.id, c.cropName, c.quantity, c.harvestDate, c.location, c.cropState, " +
+                "o.email, c.currentOwnerRole, c.blockchainHash, c.createdAt, c.updatedAt " +
+                "FROM Crop c LEFT JOIN c.currentOwner o ORDER BY c.id"));
+        DATASETS.put("orders", new Dataset(
+                List.of("id", "crop_id", "crop_name", "buyer_email", "seller_email", "order_state",
+                        "requested_quantity", "offered_price", "created_at", "updated_at"),
+                "SELECT o.id, c.id, c.cropName, b.email, s.email, o.orderState, " +
+                "o.requestedQuantity, o.offeredPrice, o.createdAt, o.updatedAt " +
+                "FROM Order o JOIN o.crop c JOIN o.buyer b JOIN o.seller s ORDER BY o.id"));
+        DATASETS.put("disputes", new Dataset(
+                List.of("id", "crop_id", "order_id", "raised_by", "status", "description",
+                        "resolution", "created_at", "resolved_at", "closed_at"),
+                "SELECT d.id, c.id, ord.id, r.email, d.status, d.description, " +
+                "d.resolution, d.createdAt, d.resolvedAt, d.closedAt " +
+                "FROM Dispute d JOIN d.crop c LEFT JOIN d.order ord JOIN d.raisedBy r ORDER BY d.id"));
+        DATASETS.put("shipments", new Dataset(
+                List.of("id", "order_id", "tracking_number", "status", "carrier_email", "current_location",
+                        "destination_address", "condition_status", "created_at", "dispatched_at",
+                        "estimated_delivery_at", "actual_delivery_at"),
+                "SELECT s.id, o.id, s.trackingNumber, s.status, c.email, s.currentLocation, " +
+                "s.destinationAddress, s.conditionStatus, s.createdAt, s.dispatchedAt, " +
+                "s.estimatedDeliveryAt, s.actualDeliveryAt " +
+                "FROM Shipment s JOIN s.order o LEFT JOIN s.carrier c ORDER BY s.id"));
+        DATASETS.put("audit-logs", new Dataset(
+                List.of("id", "action", "performed_by", "details", "timestamp"),
+                "SELECT a.id, a.action, p.email, a.details, a.timestamp " +
+                "FROM AuditLog a JOIN a.performedBy p ORDER BY a.id"));
+    }
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReportExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Set<String> dataTypes() {
+        return DATASETS.keySet();
+    }
+
+    public boolean supports(String dataType) {
+        return DATASETS.containsKey(dataType);
+    }
+
+    /**
+     * Writes the whole dataset to out; returns the number of rows
+     */
+    public long export(String dataType, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        Dataset dataset = DATASETS.get(dataType);
+        if (dataset == null) {
+            throw new IllegalArgumentException("Unknown data type: " + dataType + ", expected one of " + DATASETS.keySet());
+        }
+
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = format == ExportFormat.NDJSON
+                ? new NdjsonRowWriter(writer, dataset.columns)
+                : new CsvRowWriter(writer, dataset.columns);
+
+        Long count = readOnlyTransaction.execute(status -> {
+            long written = 0;
+            try (Stream<Object[]> stream = entityManager.createQuery(dataset.jpql, Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                rows.begin();
+                for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                    rows.write(row);
+                    written++;
+                }
+                rows.end();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return written;
+        });
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        return count != null ? count : 0;
+    }
+
+    // Enums by name, dates and times in ISO-8601
+    private static String text(Object value) {
+        return String.valueOf(value);
+    }
+
+    private interface RowWriter {
+        void begin() throws IOException;
+        void write(Object[] row) throws IOException;
+        void end() throws IOException;
+    }
+
+    /**
+     * RFC 4180: fields with separators, quotes or line breaks are quoted
+     */
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<String> columns;
+
+        CsvRowWriter(Writer writer, List<String> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        public void begin() throws IOException {
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        public void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (row[i] != null) {
+                    writeField(text(row[i]));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        public void end() {
+        }
+
+        private void writeField(String s) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < s.length() && !quote; i++) {
+                char c = s.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(s);
+                return;
+            }
+            writer.write('"');
+            writer.write(s.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * One JSON object per line
+     */
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<String> columns;
+        private JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer, List<String> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        public void begin() throws IOException {
+            generator = jsonFactory.createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are terminated explicitly below
+            generator.setRootValueSeparator(null);
+        }
+
+        public void write(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < row.length; i++) {
+                String name = columns.get(i);
+                Object value = row[i];
+                if (value == null) {
+                    generator.writeNullField(name);
+                } else if (value instanceof Long || value instanceof Integer) {
+                    generator.writeNumberField(name, ((Number) value).longValue());
+                } else if (value instanceof Number n) {
+                    generator.writeNumberField(name, n.doubleValue());
+                } else if (value instanceof Boolean b) {
+                    generator.writeBooleanField(name, b);
+                } else {
+                    generator.writeStringField(name, text(value));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        public void end() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class Dataset {
+        private final List<String> columns;
+        private final String jpql;
+
+        Dataset(List<String> columns, String jpql) {
+            this.columns = columns;
+            this.jpql = jpql;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.common.tx.RebuildGate;
+import com.farmchainx.backend.dto.RollupPoint;
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.enums.OrderState;
+import com.farmchainx.backend.enums.RollupGranularity;
+import com.farmchainx.backend.event.CropChangedEvent;
+import com.farmchainx.backend.event.DisputeStatusChangedEvent;
+import com.farmchainx.backend.event.OrderStateChangedEvent;
+import com.farmchainx.backend.event.UserChangedEvent;
+import com.farmchainx.backend.repository.AnalyticsRollupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Hourly, daily and monthly activity rollups per region and crop name.
+ *
+ * Committed writes are added to all three granularities as they happen,
+ * bucketed by the same timestamp columns the backfill groups on; history
+ * that predates the rollups (or drifted) is rebuilt month by month straight
+ * from crops, crop history, orders, users and disputes. A RebuildGate keeps
+ * live additions out while a month is rebuilt. Trend and window queries
+ * only read rollups.
+ */
+@Service
+public class RollupService {
+
+    // Keeps a single trend request from materializing millions of empty buckets
+    private static final int MAX_POINTS = 5000;
+
+    private static final String INSERT = "INSERT INTO analytics_rollups (granularity, bucket_start, region, crop_name, " +
+            "crops_created, crops_listed, orders_placed, orders_completed, users_registered, order_value, " +
+            "disputes_raised, disputes_resolved) ";
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupService.class);
+
+    private final AnalyticsRollupRepository rollupRepository;
+    private final TransactionTemplate updateTransaction;
+    private final TransactionTemplate backfillTransaction;
+    private final RebuildGate gate = new RebuildGate();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RollupService(AnalyticsRollupRepository rollupRepository, PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.updateTransaction = new TransactionTemplate(transactionManager);
+        this.updateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Non-locking reads of the source tables: writers wait on the gate while holding their row locks
+        this.backfillTransaction = new TransactionTemplate(transactionManager);
+        this.backfillTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    // ------------------- Incremental feed -------------------
+
+    @EventListener
+    public void onCropChanged(CropChangedEvent event) {
+        if (event.getFromState() == null) {
+            afterCommit(() -> add(event.getCreatedAt(), event.getLocation(), event.getCropName(), 1, 0, 0, 0, 0, 0.0, 0, 0));
+        } else if (event.getFromState() == CropState.CREATED && event.getToState() == CropState.LISTED) {
+            afterCommit(() -> add(LocalDateTime.now(), event.getLocation(), event.getCropName(), 0, 1, 0, 0, 0, 0.0, 0, 0));
+        }
+    }
+
+    @EventListener
+    public void onOrderStateChanged(OrderStateChangedEvent event) {
+        if (event.getFromState() == null) {
+            afterCommit(() -> add(event.getCreatedAt(), event.getRegion(), event.getCropName(), 0, 0, 1, 0, 0, event.getAmount(), 0, 0));
+        } else if (event.getToState() == OrderState.COMPLETED) {
+            // updated_at is only stamped at flush, so read the committed value
+            afterCommit(() -> add(orderUpdatedAt(event.getOrderId()), event.getRegion(), event.getCropName(), 0, 0, 0, 1, 0, 0.0, 0, 0));
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isNewUser()) {
+            afterCommit(() -> add(event.getCreatedAt(), "", "", 0, 0, 0, 0, 1, 0.0, 0, 0));
+        }
+    }
+
+    @EventListener
+    public void onDisputeStatusChanged(DisputeStatusChangedEvent event) {
+        if (event.getFromStatus() == null) {
+            afterCommit(() -> add(event.getCreatedAt(), event.getRegion(), event.getCropName(), 0, 0, 0, 0, 0, 0.0, 1, 0));
+        } else if ("RESOLVED".equals(event.getToStatus())) {
+            afterCommit(() -> add(event.getResolvedAt(), event.getRegion(), event.getCropName(), 0, 0, 0, 0, 0, 0.0, 0, 1));
+        }
+    }
+
+    private void afterCommit(Runnable update) {
+        gate.afterCommit(() -> updateTransaction.executeWithoutResult(status -> update.run()));
+    }
+
+    private LocalDateTime orderUpdatedAt(Long orderId) {
+        List<?> rows = entityManager.createNativeQuery("SELECT updated_at FROM orders WHERE id = :id")
+                .setParameter("id", orderId)
+                .getResultList();
+        return rows.isEmpty() ? LocalDateTime.now() : toLocalDateTime(rows.get(0));
+    }
+
+    private void add(LocalDateTime time, String region, String cropName, long crops, long listed,
+                     long placed, long completed, long users, double value, long raised, long resolved) {
+        if (time == null) {
+            time = LocalDateTime.now();
+        }
+        for (RollupGranularity g : RollupGranularity.values()) {
+            rollupRepository.add(g.name(), g.bucketOf(time), nullToEmpty(region), nullToEmpty(cropName),
+                    crops, listed, placed, completed, users, value, raised, resolved);
+        }
+    }
+
+    // ------------------- Queries -------------------
+
+    /**
+     * Continuous series over [from, to): buckets without activity are zero.
+     * region / cropName narrow the crop and order metrics; user registrations
+     * are only counted when neither filter is set.
+     */
+    public List<RollupPoint> series(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                    String region, String cropName) {
+        LocalDateTime start = granularity.bucketOf(from);
+        Map<LocalDateTime, RollupPoint> found = new HashMap<>();
+        for (RollupPoint p : rollupRepository.findSeries(granularity, start, to, emptyToNull(region), emptyToNull(cropName))) {
+            found.put(p.getBucketStart(), p);
+        }
+
+        List<RollupPoint> out = new ArrayList<>();
+        for (LocalDateTime b = start; b.isBefore(to); b = granularity.next(b)) {
+            if (out.size() >= MAX_POINTS) {
+                throw new IllegalArgumentException("Range too large for " + granularity + " buckets, use a coarser granularity");
+            }
+            out.add(found.getOrDefault(b, RollupPoint.empty(b)));
+        }
+        return out;
+    }
+
+    /**
+     * Totals over [from, to) from as few buckets as possible: whole months in
+     * the middle, whole days and then hours at the edges. Resolution is one hour.
+     */
+    public RollupPoint totals(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = RollupGranularity.HOUR.bucketOf(from);
+        RollupPoint total = RollupPoint.empty(start);
+        LocalDateTime cursor = start;
+        while (cursor.isBefore(to)) {
+            RollupGranularity g = largestAt(cursor, to);
+            LocalDateTime end = cursor;
+            while (!g.next(end).isAfter(to) && largestAt(end, to) == g) {
+                end = g.next(end);
+            }
+            if (end.equals(cursor)) {
+                // Partial trailing hour
+                end = g.next(cursor);
+            }
+            total = total.plus(rollupRepository.sumBetween(g, cursor, end));
+            cursor = end;
+        }
+        return total;
+    }
+
+    /**
+     * Coarsest bucket starting at time that still ends by limit
+     */
+    private static RollupGranularity largestAt(LocalDateTime time, LocalDateTime limit) {
+        for (RollupGranularity g : new RollupGranularity[]{RollupGranularity.MONTH, RollupGranularity.DAY}) {
+            if (g.bucketOf(time).equals(time) && !g.next(time).isAfter(limit)) {
+                return g;
+            }
+        }
+        return RollupGranularity.HOUR;
+    }
+
+    // ------------------- Backfill -------------------
+
+    /**
+     * First start with rollups: build them from existing data
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.count() == 0) {
+            backfillAll();
+        }
+    }
+
+    /**
+     * Rebuild every month from the oldest crop / order / user / dispute up to now,
+     * one month per transaction
+     */
+    public int backfillAll() {
+        Object oldest = entityManager.createNativeQuery(
+                "SELECT LEAST(COALESCE((SELECT MIN(created_at) FROM crops), NOW()), " +
+                "COALESCE((SELECT MIN(created_at) FROM orders), NOW()), " +
+                "COALESCE((SELECT MIN(created_at) FROM users), NOW()), " +
+                "COALESCE((SELECT MIN(created_at) FROM disputes), NOW()))").getSingleResult();
+        LocalDateTime from = toLocalDateTime(oldest);
+        return backfill(from, LocalDateTime.now());
+    }
+
+    /**
+     * Recompute all buckets of the months touching [from, to]. Live additions
+     * wait while a month is rebuilt, so none is lost or counted twice.
+     */
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        long start = System.currentTimeMillis();
+        int months = 0;
+        for (LocalDateTime month = RollupGranularity.MONTH.bucketOf(from); !month.isAfter(to); month = month.plusMonths(1)) {
+            LocalDateTime windowStart = month;
+            LocalDateTime windowEnd = month.plusMonths(1);
+            gate.exclusive(() -> backfillTransaction.execute(status -> {
+                backfillWindow(windowStart, windowEnd);
+                return null;
+            }));
+            months++;
+        }
+        logger.info("Analytics rollups backfilled for {} month(s) in {} ms", months, System.currentTimeMillis() - start);
+        return months;
+    }
+
+    private void backfillWindow(LocalDateTime from, LocalDateTime to) {
+        rollupRepository.deleteBucketsBetween(from, to);
+        for (RollupGranularity g : RollupGranularity.values()) {
+            String granularity = "'" + g.name() + "', ";
+
+            execute(INSERT + "SELECT " + granularity + g.sqlBucket("created_at") + ", COALESCE(location, ''), COALESCE(crop_name, ''), " +
+                    "COUNT(*), 0, 0, 0, 0, 0, 0, 0 FROM crops WHERE created_at >= :from AND created_at < :to GROUP BY 2, 3, 4 " +
+                    "ON DUPLICATE KEY UPDATE crops_created = crops_created + VALUES(crops_created)", from, to);
+
+            execute(INSERT + "SELECT " + granularity + g.sqlBucket("h.timestamp") + ", COALESCE(c.location, ''), COALESCE(c.crop_name, ''), " +
+                    "0, COUNT(*), 0, 0, 0, 0, 0, 0 FROM crop_history h JOIN crops c ON c.id = h.crop_id " +
+                    "WHERE h.from_state = 'CREATED' AND h.to_state = 'LISTED' " +
+                    "AND h.timestamp >= :from AND h.timestamp < :to GROUP BY 2, 3, 4 " +
+                    "ON DUPLICATE KEY UPDATE crops_listed = crops_listed + VALUES(crops_listed)", from, to);
+
+            execute(INSERT + "SELECT " + granularity + g.sqlBucket("o.created_at") + ", COALESCE(c.location, ''), COALESCE(c.crop_name, ''), " +
+                    "0, 0, COUNT(*), 0, 0, SUM(COALESCE(o.offered_price * o.requested_quantity, 0)), 0, 0 " +
+                    "FROM orders o JOIN crops c ON c.id = o.crop_id " +
+                    "WHERE o.created_at >= :from AND o.created_at < :to GROUP BY 2, 3, 4 " +
+                    "ON DUPLICATE KEY UPDATE orders_placed = orders_placed + VALUES(orders_placed), " +
+                    "order_value = order_value + VALUES(order_value)", from, to);
+
+            // COMPLETED is terminal, so the last update is the completion time
+            execute(INSERT + "SELECT " + granularity + g.sqlBucket("o.updated_at") + ", COALESCE(c.location, ''), COALESCE(c.crop_name, ''), " +
+                    "0, 0, 0, COUNT(*), 0, 0, 0, 0 FROM orders o JOIN crops c ON c.id = o.crop_id " +
+                    "WHERE o.order_state = 'COMPLETED' AND o.updated_at >= :from AND o.updated_at < :to GROUP BY 2, 3, 4 " +
+                    "ON DUPLICATE KEY UPDATE orders_completed = orders_completed + VALUES(orders_completed)", from, to);
+
+            execute(INSERT + "SELECT " + granularity + g.sqlBucket("created_at") + ", '', '', 0, 0, 0, 0, COUNT(*), 0, 0, 0 " +
+                    "FROM users WHERE created_at >= :from AND created_at < :to GROUP BY 2 " +
+                    "ON DUPLICATE KEY UPDATE users_registered = users_registered + VALUES(users_registered)", from, to);
+
+            execute(INSERT + "SELECT " + granularity + g.sqlBucket("d.created_at") + ", COALESCE(c.location, ''), COALESCE(c.crop_name, ''), " +
+                    "0, 0, 0, 0, 0, 0, COUNT(*), 0 FROM disputes d JOIN crops c ON c.id = d.crop_id " +
+                    "WHERE d.created_at >= :from AND d.created_at < :to GROUP BY 2, 3, 4 " +
+                    "ON DUPLICATE KEY UPDATE disputes_raised = disputes_raised + VALUES(disputes_raised)", from, to);
+
+            execute(INSERT + "SELECT " + granularity + g.sqlBucket("d.resolved_at") + ", COALESCE(c.location, ''), COALESCE(c.crop_name, ''), " +
+                    "0, 0, 0, 0, 0, 0, 0, COUNT(*) FROM disputes d JOIN crops c ON c.id = d.crop_id " +
+                    "WHERE d.resolved_at >= :from AND d.resolved_at < :to GROUP BY 2, 3, 4 " +
+                    "ON DUPLICATE KEY UPDATE disputes_resolved = disputes_resolved + VALUES(disputes_resolved)", from, to);
+        }
+    }
+
+    private void execute(String sql, LocalDateTime from, LocalDateTime to) {
+        entityManager.createNativeQuery(sql)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .executeUpdate();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime ldt) return ldt;
+        if (value instanceof Timestamp ts) return ts.toLocalDateTime();
+        return LocalDateTime.now();
+    }
+
+    private static String nullToEmpty(String s) {
+        return s != null ? s : "";
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+}
@@ -0,0 +1,344 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.common.sketch.HyperLogLog;
+import com.farmchainx.backend.common.sketch.QuantileSketch;
+import com.farmchainx.backend.common.tx.RebuildGate;
+import com.farmchainx.backend.entity.AnalyticsSketch;
+import com.farmchainx.backend.enums.SketchMetric;
+import com.farmchainx.backend.event.OrderStateChangedEvent;
+import com.farmchainx.backend.repository.AnalyticsSketchRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Daily per-region / per-crop sketches of new orders: distinct buyers
+ * (HyperLogLog) and offered price / requested quantity distributions
+ * (QuantileSketch).
+ *
+ * Committed orders are added to in-memory sketches and merged into the
+ * stored daily rows by a periodic flush, so the order path never touches
+ * the sketch table. Queries merge the daily rows of the requested range
+ * (plus anything not flushed yet) instead of scanning orders.
+ *
+ * A rebuilt day replaces both its stored rows and its unflushed orders.
+ * Flushes wait for it, and a RebuildGate keeps orders committing meanwhile
+ * out of pending until the day has been read, so none is counted twice.
+ */
+@Service
+public class SketchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SketchService.class);
+
+    private final AnalyticsSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Adders hold the read lock; a flush takes the write lock only to swap the map
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+    private Map<Key, Bucket> pending = new HashMap<>();
+
+    // Held by a flush and by each rebuilt day, so a day is never stored from both
+    private final Object storeLock = new Object();
+    private final RebuildGate gate = new RebuildGate();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SketchService(AnalyticsSketchRepository sketchRepository, PlatformTransactionManager transactionManager) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ------------------- Incremental feed -------------------
+
+    @EventListener
+    public void onOrderStateChanged(OrderStateChangedEvent event) {
+        if (event.getFromState() == null) {
+            gate.afterCommit(() -> addPending(event));
+        }
+    }
+
+    private void addPending(OrderStateChangedEvent event) {
+        // Same day the rebuild puts the order in
+        LocalDate day = event.getCreatedAt() != null ? event.getCreatedAt().toLocalDate() : LocalDate.now();
+        Key key = new Key(day, event.getRegion(), event.getCropName());
+        pendingLock.readLock().lock();
+        try {
+            Bucket bucket;
+            synchronized (pending) {
+                bucket = pending.computeIfAbsent(key, k -> new Bucket());
+            }
+            bucket.add(event.getBuyerId(), event.getPrice(), event.getQuantity());
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${analytics.sketches.flush-ms:60000}",
+               fixedDelayString = "${analytics.sketches.flush-ms:60000}")
+    public void flush() {
+        synchronized (storeLock) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        Map<Key, Bucket> batch;
+        pendingLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::store));
+        } catch (RuntimeException e) {
+            // Nothing was stored; put the batch back so the next flush retries it
+            logger.warn("Analytics sketch flush failed: {}", e.getMessage());
+            pendingLock.readLock().lock();
+            try {
+                synchronized (pending) {
+                    batch.forEach((key, bucket) -> pending.computeIfAbsent(key, k -> new Bucket()).merge(bucket));
+                }
+            } finally {
+                pendingLock.readLock().unlock();
+            }
+        }
+    }
+
+    private void store(Key key, Bucket bucket) {
+        merge(key, SketchMetric.BUYERS, new HyperLogLog().toBytes(), bytes -> {
+            HyperLogLog stored = HyperLogLog.fromBytes(bytes);
+            stored.merge(bucket.buyers);
+            return stored.toBytes();
+        });
+        merge(key, SketchMetric.PRICE, new QuantileSketch().toBytes(), bytes -> {
+            QuantileSketch stored = QuantileSketch.fromBytes(bytes);
+            stored.merge(bucket.prices);
+            return stored.toBytes();
+        });
+        merge(key, SketchMetric.QUANTITY, new QuantileSketch().toBytes(), bytes -> {
+            QuantileSketch stored = QuantileSketch.fromBytes(bytes);
+            stored.merge(bucket.quantities);
+            return stored.toBytes();
+        });
+    }
+
+    // Read-merge-write under a row lock; the row is created empty first if missing
+    private void merge(Key key, SketchMetric metric, byte[] empty, UnaryOperator<byte[]> mergeInto) {
+        sketchRepository.insertIfAbsent(key.day, key.region, key.cropName, metric.name(), empty);
+        AnalyticsSketch row = sketchRepository.findForUpdate(key.day, key.region, key.cropName, metric)
+                .orElseThrow(() -> new RuntimeException("Analytics sketch row missing after insert"));
+        row.setSketch(mergeInto.apply(row.getSketch()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ------------------- Queries -------------------
+
+    /**
+     * Approximate number of distinct buyers over days [from, to]
+     */
+    public long distinctBuyers(LocalDate from, LocalDate to, String region, String cropName) {
+        HyperLogLog merged = new HyperLogLog();
+        for (byte[] bytes : sketchRepository.findSketches(SketchMetric.BUYERS, from, to.plusDays(1),
+                emptyToNull(region), emptyToNull(cropName))) {
+            merged.merge(HyperLogLog.fromBytes(bytes));
+        }
+        forPending(from, to, region, cropName, bucket -> merged.merge(bucket.buyers));
+        return merged.estimate();
+    }
+
+    /**
+     * Merged PRICE or QUANTITY sketch over days [from, to]
+     */
+    public QuantileSketch distribution(SketchMetric metric, LocalDate from, LocalDate to, String region, String cropName) {
+        if (metric == SketchMetric.BUYERS) {
+            throw new IllegalArgumentException("BUYERS is a distinct count, not a distribution");
+        }
+        QuantileSketch merged = new QuantileSketch();
+        for (byte[] bytes : sketchRepository.findSketches(metric, from, to.plusDays(1),
+                emptyToNull(region), emptyToNull(cropName))) {
+            merged.merge(QuantileSketch.fromBytes(bytes));
+        }
+        forPending(from, to, region, cropName,
+                bucket -> merged.merge(metric == SketchMetric.PRICE ? bucket.prices : bucket.quantities));
+        return merged;
+    }
+
+    private void forPending(LocalDate from, LocalDate to, String region, String cropName,
+                            Consumer<Bucket> action) {
+        String r = emptyToNull(region);
+        String c = emptyToNull(cropName);
+        pendingLock.readLock().lock();
+        try {
+            synchronized (pending) {
+                pending.forEach((key, bucket) -> {
+                    if (!key.day.isBefore(from) && !key.day.isAfter(to)
+                            && (r == null || r.equals(key.region)) && (c == null || c.equals(key.cropName))) {
+                        synchronized (bucket) {
+                            action.accept(bucket);
+                        }
+                    }
+                });
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    // ------------------- Rebuild -------------------
+
+    /**
+     * First start with sketches: build them from existing orders
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (sketchRepository.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    public int rebuildAll() {
+        Object oldest = entityManager.createNativeQuery("SELECT MIN(DATE(created_at)) FROM orders").getSingleResult();
+        if (oldest == null) {
+            return 0;
+        }
+        LocalDate from = oldest instanceof LocalDate ld ? ld
+                : oldest instanceof Date d ? d.toLocalDate() : LocalDate.parse(oldest.toString());
+        return rebuild(from, LocalDate.now());
+    }
+
+    /**
+     * Recomputes the sketches of days [from, to] from the orders table, one day per transaction
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        long start = System.currentTimeMillis();
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate current = day;
+            synchronized (storeLock) {
+                gate.exclusive(() -> {
+                    transactionTemplate.executeWithoutResult(status -> rebuildDay(current));
+                    // Every order added to pending so far was committed, so the rebuild read it
+                    discardPending(current);
+                    return null;
+                });
+            }
+            days++;
+        }
+        logger.info("Analytics sketches rebuilt for {} day(s) in {} ms", days, System.currentTimeMillis() - start);
+        return days;
+    }
+
+    private void discardPending(LocalDate day) {
+        pendingLock.writeLock().lock();
+        try {
+            pending.keySet().removeIf(key -> key.day.equals(day));
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebuildDay(LocalDate day) {
+        sketchRepository.deleteByDay(day);
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT c.location, c.crop_name, o.buyer_id, o.offered_price, o.requested_quantity " +
+                        "FROM orders o JOIN crops c ON c.id = o.crop_id " +
+                        "WHERE o.created_at >= :from AND o.created_at < :to")
+                .setParameter("from", day.atStartOfDay())
+                .setParameter("to", day.plusDays(1).atStartOfDay())
+                .getResultList();
+
+        Map<Key, Bucket> buckets = new HashMap<>();
+        for (Object[] row : rows) {
+            Key key = new Key(day, (String) row[0], (String) row[1]);
+            buckets.computeIfAbsent(key, k -> new Bucket()).add(
+                    row[2] != null ? ((Number) row[2]).longValue() : null,
+                    row[3] != null ? ((Number) row[3]).doubleValue() : null,
+                    row[4] != null ? ((Number) row[4]).doubleValue() : null);
+        }
+        buckets.forEach((key, bucket) -> {
+            sketchRepository.insertIfAbsent(day, key.region, key.cropName, SketchMetric.BUYERS.name(), bucket.buyers.toBytes());
+            sketchRepository.insertIfAbsent(day, key.region, key.cropName, SketchMetric.PRICE.name(), bucket.prices.toBytes());
+            sketchRepository.insertIfAbsent(day, key.region, key.cropName, SketchMetric.QUANTITY.name(), bucket.quantities.toBytes());
+        });
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+
+    private static class Key {
+        private final LocalDate day;
+        private final String region;
+        private final String cropName;
+
+        Key(LocalDate day, String region, String cropName) {
+            this.day = day;
+            this.region = region != null ? region : "";
+            this.cropName = cropName != null ? cropName : "";
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return day.equals(other.day) && region.equals(other.region) && cropName.equals(other.cropName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, region, cropName);
+        }
+    }
+
+    private static class Bucket {
+        private final HyperLogLog buyers = new HyperLogLog();
+        private final QuantileSketch prices = new QuantileSketch();
+        private final QuantileSketch quantities = new QuantileSketch();
+
+        synchronized void add(Long buyerId, Double price, Double quantity) {
+            if (buyerId != null) {
+                buyers.add(buyerId);
+            }
+            if (price != null) {
+                prices.add(price);
+            }
+            if (quantity != null) {
+                quantities.add(quantity);
+            }
+        }
+
+        synchronized void merge(Bucket other) {
+            buyers.merge(other.buyers);
+            prices.merge(other.prices);
+            quantities.merge(other.quantities);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.common.tx.RebuildGate;
+import com.farmchainx.backend.dto.OrderTotals;
+import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.entity.UserOrderCounter;
+import com.farmchainx.backend.enums.OrderState;
+import com.farmchainx.backend.event.OrderStateChangedEvent;
+import com.farmchainx.backend.repository.OrderRepository;
+import com.farmchainx.backend.repository.SellerCustomerRepository;
+import com.farmchainx.backend.repository.UserOrderCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-user order counters behind the dashboards.
+ *
+ * Counters are adjusted in their own short transaction once the order change
+ * has committed, so the order transaction never holds counter row locks. A
+ * seller's customers are counted from seller_customers: the counter moves only
+ * when INSERT IGNORE actually adds the (seller, buyer) pair.
+ *
+ * The periodic rebuild works through ranges of user ids, each in its own
+ * READ COMMITTED transaction under the RebuildGate, so it never runs alongside
+ * a pending adjustment and never holds locks on the whole table.
+ */
+@Service
+public class UserCounterService {
+
+    static final String BUYER = "BUYER_";
+    static final String SELLER = "SELLER_";
+    static final String CUSTOMERS = "CUSTOMERS";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCounterService.class);
+
+    private final UserOrderCounterRepository counterRepository;
+    private final SellerCustomerRepository sellerCustomerRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate updateTransaction;
+    private final TransactionTemplate rebuildTransaction;
+    private final RebuildGate gate = new RebuildGate();
+    private final int rebuildChunkSize;
+
+    public UserCounterService(UserOrderCounterRepository counterRepository,
+                              SellerCustomerRepository sellerCustomerRepository,
+                              OrderRepository orderRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${dashboard.counters.rebuild-chunk-size:500}") int rebuildChunkSize) {
+        this.counterRepository = counterRepository;
+        this.sellerCustomerRepository = sellerCustomerRepository;
+        this.orderRepository = orderRepository;
+        this.updateTransaction = new TransactionTemplate(transactionManager);
+        this.updateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    /**
+     * First start with these tables: fill them from existing orders
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if ((counterRepository.count() == 0 || sellerCustomerRepository.count() == 0) && orderRepository.count() > 0) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Registered inside the order transaction; the counters move after it commits
+     */
+    @EventListener
+    public void onOrderStateChanged(OrderStateChangedEvent event) {
+        gate.afterCommit(() -> updateTransaction.executeWithoutResult(status -> apply(event)));
+    }
+
+    private void apply(OrderStateChangedEvent event) {
+        double amount = event.getAmount();
+
+        if (event.getFromState() != null) {
+            counterRepository.increment(event.getBuyerId(), BUYER + event.getFromState(), -1, -amount);
+            counterRepository.increment(event.getSellerId(), SELLER + event.getFromState(), -1, -amount);
+        } else if (sellerCustomerRepository.insertIfAbsent(event.getSellerId(), event.getBuyerId()) == 1) {
+            // First order between these two users
+            counterRepository.increment(event.getSellerId(), CUSTOMERS, 1, 0);
+        }
+        counterRepository.increment(event.getBuyerId(), BUYER + event.getToState(), 1, amount);
+        counterRepository.increment(event.getSellerId(), SELLER + event.getToState(), 1, amount);
+    }
+
+    /**
+     * All counters of a user in one indexed read
+     */
+    public UserCounters countersOf(User user) {
+        UserCounters counters = new UserCounters();
+        for (UserOrderCounter counter : counterRepository.findByUserId(user.getId())) {
+            String key = counter.getCounterKey();
+            if (key.equals(CUSTOMERS)) {
+                counters.customersServed = counter.getOrderCount();
+            } else if (key.startsWith(BUYER)) {
+                counters.asBuyer.add(stateOf(key, BUYER), counter.getOrderCount(), counter.getAmount());
+            } else if (key.startsWith(SELLER)) {
+                counters.asSeller.add(stateOf(key, SELLER), counter.getOrderCount(), counter.getAmount());
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Recompute every counter from the orders table, one range of user ids at a time
+     */
+    @Scheduled(cron = "${dashboard.counters.reconcile-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        long start = System.currentTimeMillis();
+        long maxUserId = counterRepository.maxUserId();
+        for (long fromId = 1; fromId <= maxUserId; fromId += rebuildChunkSize) {
+            rebuildRange(fromId, fromId + rebuildChunkSize - 1);
+        }
+        logger.info("Dashboard counters rebuilt for user ids up to {} in {} ms",
+                maxUserId, System.currentTimeMillis() - start);
+    }
+
+    private void rebuildRange(long fromId, long toId) {
+        gate.exclusive(() -> rebuildTransaction.execute(status -> {
+            sellerCustomerRepository.deleteSellers(fromId, toId);
+            sellerCustomerRepository.insertSellers(fromId, toId);
+            counterRepository.deleteCounters(fromId, toId);
+            counterRepository.insertBuyerCounters(fromId, toId);
+            counterRepository.insertSellerCounters(fromId, toId);
+            counterRepository.insertCustomerCounters(fromId, toId);
+            return null;
+        }));
+    }
+
+    private OrderState stateOf(String key, String prefix) {
+        return OrderState.valueOf(key.substring(prefix.length()));
+    }
+
+    public static class UserCounters {
+        private final OrderTotals asBuyer = new OrderTotals();
+        private final OrderTotals asSeller = new OrderTotals();
+        private long customersServed;
+
+        public OrderTotals getAsBuyer() { return asBuyer; }
+        public OrderTotals getAsSeller() { return asSeller; }
+        public long getCustomersServed() { return customersServed; }
+    }
+}
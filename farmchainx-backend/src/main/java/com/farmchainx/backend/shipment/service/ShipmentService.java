@@ -3,7 +3,7 @@ package com.farmchainx.backend.shipment.service;
 import com.farmchainx.backend.entity.Order;
 import com.farmchainx.backend.entity.User;
 import com.farmchainx.backend.repository.OrderRepository;
-import com.farmchainx.backend.repository.UserRepository;
+import com.farmchainx.backend.service.CurrentUser;
 import com.farmchainx.backend.shipment.dto.ShipmentCreateRequest;
 import com.farmchainx.backend.shipment.dto.ShipmentResponse;
 import com.farmchainx.backend.shipment.entity.Shipment;
@@ -11,7 +11,6 @@ import com.farmchainx.backend.shipment.entity.ShipmentTrackingEvent;
 import com.farmchainx.backend.shipment.enums.ShipmentStatus;
 import com.farmchainx.backend.shipment.repository.ShipmentRepository;
 import com.farmchainx.backend.shipment.repository.ShipmentTrackingEventRepository;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,16 +24,16 @@ public class ShipmentService {
     private final ShipmentRepository shipmentRepository;
     private final ShipmentTrackingEventRepository trackingEventRepository;
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
 
     public ShipmentService(ShipmentRepository shipmentRepository,
                           ShipmentTrackingEventRepository trackingEventRepository,
                           OrderRepository orderRepository,
-                          UserRepository userRepository) {
+                          CurrentUser currentUser) {
         this.shipmentRepository = shipmentRepository;
         this.trackingEventRepository = trackingEventRepository;
         this.orderRepository = orderRepository;
-        this.userRepository = userRepository;
+        this.currentUser = currentUser;
     }
 
     @Transactional
@@ -49,14 +48,12 @@ public class ShipmentService {
         }
 
         // Get current user
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser.get();
 
         // Create shipment
         Shipment shipment = new Shipment();
         shipment.setOrder(order);
-        shipment.setCarrier(currentUser);
+        shipment.setCarrier(user);
         shipment.setVehicleNumber(request.getVehicleNumber());
         shipment.setDriverName(request.getDriverName());
         shipment.setDriverContact(request.getDriverContact());
@@ -71,7 +68,7 @@ public class ShipmentService {
 
         // Create initial tracking event
         createTrackingEvent(shipment, "SHIPMENT_CREATED",
-                "Shipment created and ready for dispatch", currentUser);
+                "Shipment created and ready for dispatch", user);
 
         return toResponse(shipment);
     }
@@ -84,15 +81,13 @@ public class ShipmentService {
             throw new RuntimeException("Only shipments in CREATED status can be dispatched");
         }
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser.get();
 
         shipment.dispatch();
         shipment = shipmentRepository.save(shipment);
 
         createTrackingEvent(shipment, "STATUS_CHANGE",
-                "Shipment dispatched and in transit", currentUser);
+                "Shipment dispatched and in transit", user);
 
         return toResponse(shipment);
     }
@@ -102,9 +97,7 @@ public class ShipmentService {
                                           Double longitude, String locationName) {
         Shipment shipment = getShipmentById(shipmentId);
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser.get();
 
         shipment.updateLocation(latitude, longitude, locationName);
         shipment = shipmentRepository.save(shipment);
@@ -117,7 +110,7 @@ public class ShipmentService {
         event.setLatitude(latitude);
         event.setLongitude(longitude);
         event.setLocationName(locationName);
-        event.setRecordedBy(currentUser);
+        event.setRecordedBy(user);
         trackingEventRepository.save(event);
 
         return toResponse(shipment);
@@ -127,9 +120,7 @@ public class ShipmentService {
     public ShipmentResponse updateCondition(Long shipmentId, Double temperature, Double humidity) {
         Shipment shipment = getShipmentById(shipmentId);
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser.get();
 
         shipment.updateCondition(temperature, humidity);
         shipment = shipmentRepository.save(shipment);
@@ -142,13 +133,13 @@ public class ShipmentService {
                 temperature, humidity));
         event.setTemperature(temperature);
         event.setHumidity(humidity);
-        event.setRecordedBy(currentUser);
+        event.setRecordedBy(user);
         trackingEventRepository.save(event);
 
         // Check for alerts
         if ("CRITICAL".equals(shipment.getConditionStatus())) {
             createTrackingEvent(shipment, "CONDITION_ALERT",
-                    "CRITICAL: Temperature out of safe range!", currentUser);
+                    "CRITICAL: Temperature out of safe range!", user);
         }
 
         return toResponse(shipment);
@@ -163,15 +154,13 @@ public class ShipmentService {
             throw new RuntimeException("Only shipments in transit can be marked as delivered");
         }
 
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser.get();
 
         shipment.markDelivered();
         shipment = shipmentRepository.save(shipment);
 
         createTrackingEvent(shipment, "STATUS_CHANGE",
-                "Shipment delivered successfully", currentUser);
+                "Shipment delivered successfully", user);
 
         return toResponse(shipment);
     }
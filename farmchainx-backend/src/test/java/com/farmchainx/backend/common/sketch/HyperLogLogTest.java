@@ -0,0 +1,70 @@
+package com.farmchainx.backend.common.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @Test
+    void duplicatesAreCountedOnce() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int round = 0; round < 10; round++) {
+            for (long id = 1; id <= 100; id++) {
+                hll.add(id);
+            }
+        }
+        assertThat(hll.estimate()).isCloseTo(100L, within(3L));
+    }
+
+    @Test
+    void largeCardinalityStaysWithinErrorBound() {
+        HyperLogLog hll = new HyperLogLog();
+        for (long id = 1; id <= 100_000; id++) {
+            hll.add(id);
+        }
+        // 3x the 2.3% standard error
+        assertThat((double) hll.estimate()).isCloseTo(100_000.0, within(7_000.0));
+    }
+
+    @Test
+    void mergeEqualsUnion() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (long id = 0; id < 20_000; id++) {
+            a.add(id);
+            union.add(id);
+        }
+        for (long id = 10_000; id < 30_000; id++) {
+            b.add(id);
+            union.add(id);
+        }
+        a.merge(b);
+        assertThat(a.estimate()).isEqualTo(union.estimate());
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog hll = new HyperLogLog();
+        for (long id = 1; id <= 5_000; id++) {
+            hll.add(id * 31);
+        }
+        assertThat(HyperLogLog.fromBytes(hll.toBytes()).estimate()).isEqualTo(hll.estimate());
+    }
+
+    @Test
+    void rejectsForeignBytes() {
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[10]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.farmchainx.backend.common.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertThat(sketch.getCount()).isZero();
+        assertThat(sketch.quantile(0.5)).isNaN();
+    }
+
+    @Test
+    void quantilesAreWithinOnePercent() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int v = 1; v <= 10_000; v++) {
+            sketch.add(v);
+        }
+        assertThat(sketch.quantile(0.5)).isCloseTo(5_000.0, within(5_000 * 0.01 + 1));
+        assertThat(sketch.quantile(0.9)).isCloseTo(9_000.0, within(9_000 * 0.01 + 1));
+        assertThat(sketch.quantile(0.99)).isCloseTo(9_900.0, within(9_900 * 0.01 + 1));
+    }
+
+    @Test
+    void extremesAreExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(3.7);
+        sketch.add(120.25);
+        sketch.add(42.0);
+        assertThat(sketch.quantile(0)).isEqualTo(3.7);
+        assertThat(sketch.quantile(1)).isEqualTo(120.25);
+        assertThat(sketch.getMin()).isEqualTo(3.7);
+        assertThat(sketch.getMax()).isEqualTo(120.25);
+    }
+
+    @Test
+    void zerosAndInvalidValues() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(10);
+        sketch.add(-1);
+        sketch.add(Double.NaN);
+        assertThat(sketch.getCount()).isEqualTo(3);
+        assertThat(sketch.quantile(0.5)).isZero();
+    }
+
+    @Test
+    void mergeIsExact() {
+        QuantileSketch a = new QuantileSketch();
+        QuantileSketch b = new QuantileSketch();
+        QuantileSketch all = new QuantileSketch();
+        for (int v = 1; v <= 1_000; v++) {
+            (v % 2 == 0 ? a : b).add(v);
+            all.add(v);
+        }
+        a.merge(b);
+        assertThat(a.getCount()).isEqualTo(all.getCount());
+        for (double q : new double[]{0, 0.25, 0.5, 0.75, 0.95, 1}) {
+            assertThat(a.quantile(q)).isEqualTo(all.quantile(q));
+        }
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int v = 0; v < 500; v++) {
+            sketch.add(v * 1.5);
+        }
+        QuantileSketch copy = QuantileSketch.fromBytes(sketch.toBytes());
+        assertThat(copy.getCount()).isEqualTo(sketch.getCount());
+        assertThat(copy.quantile(0.5)).isEqualTo(sketch.quantile(0.5));
+        assertThat(copy.getMax()).isEqualTo(sketch.getMax());
+    }
+
+    @Test
+    void rejectsForeignBytes() {
+        assertThatThrownBy(() -> QuantileSketch.fromBytes(new byte[]{9, 1, 2}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,78 @@
+package com.farmchainx.backend.config;
+
+import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.enums.Status;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token.
+ *
+ * doubleParse is what the filter used to do (isTokenValid, then
+ * extractEmail, each building a parser and verifying the signature);
+ * parseOnce reuses one parser; cached is JwtUtil.parseVerifiedToken for
+ * a token seen before.
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.farmchainx.backend.config.JwtUtilBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-0123456789";
+
+    private Key key;
+    private JwtUtil jwtUtil;
+    private io.jsonwebtoken.JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        jwtUtil = new JwtUtil(SECRET, TimeUnit.HOURS.toMillis(1), 10_000);
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        User user = new User();
+        user.setEmail("farmer@example.com");
+        user.setRole(Role.FARMER);
+        user.setStatus(Status.APPROVED);
+        token = jwtUtil.generateToken(user);
+        jwtUtil.parseVerifiedToken(token);
+    }
+
+    @Benchmark
+    public String doubleParse() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public String parseOnce() {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String cached() {
+        return jwtUtil.parseVerifiedToken(token).getEmail();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,38 @@
+package com.farmchainx.backend.entity;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationReadStateTest {
+
+    private static final LocalDateTime EARLY = LocalDateTime.of(2024, 3, 1, 9, 0);
+    private static final LocalDateTime LATE = LocalDateTime.of(2024, 3, 5, 18, 30);
+
+    @Test
+    void noWatermarkWhenNothingWasRead() {
+        assertThat(state(null, null).broadcastWatermark()).isNull();
+    }
+
+    @Test
+    void eitherWatermarkAloneApplies() {
+        assertThat(state(EARLY, null).broadcastWatermark()).isEqualTo(EARLY);
+        assertThat(state(null, LATE).broadcastWatermark()).isEqualTo(LATE);
+    }
+
+    @Test
+    void laterWatermarkWins() {
+        assertThat(state(LATE, EARLY).broadcastWatermark()).isEqualTo(LATE);
+        assertThat(state(EARLY, LATE).broadcastWatermark()).isEqualTo(LATE);
+    }
+
+    private static NotificationReadState state(LocalDateTime readAllBefore, LocalDateTime broadcastsReadBefore) {
+        NotificationReadState state = new NotificationReadState();
+        ReflectionTestUtils.setField(state, "readAllBefore", readAllBefore);
+        ReflectionTestUtils.setField(state, "broadcastsReadBefore", broadcastsReadBefore);
+        return state;
+    }
+}
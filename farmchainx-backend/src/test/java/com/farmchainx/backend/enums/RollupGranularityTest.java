@@ -0,0 +1,36 @@
+package com.farmchainx.backend.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupGranularityTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 2, 29, 17, 45, 12);
+
+    @Test
+    void bucketOfTruncates() {
+        assertThat(RollupGranularity.HOUR.bucketOf(TIME)).isEqualTo(LocalDateTime.of(2024, 2, 29, 17, 0));
+        assertThat(RollupGranularity.DAY.bucketOf(TIME)).isEqualTo(LocalDateTime.of(2024, 2, 29, 0, 0));
+        assertThat(RollupGranularity.MONTH.bucketOf(TIME)).isEqualTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    void nextCrossesCalendarBoundaries() {
+        assertThat(RollupGranularity.HOUR.next(LocalDateTime.of(2024, 12, 31, 23, 0)))
+                .isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+        assertThat(RollupGranularity.DAY.next(LocalDateTime.of(2024, 2, 29, 0, 0)))
+                .isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+        assertThat(RollupGranularity.MONTH.next(LocalDateTime.of(2024, 12, 1, 0, 0)))
+                .isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+
+    @Test
+    void sqlBucketMatchesBucketOf() {
+        assertThat(RollupGranularity.HOUR.sqlBucket("o.created_at")).isEqualTo("DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00')");
+        assertThat(RollupGranularity.DAY.sqlBucket("created_at")).isEqualTo("DATE(created_at)");
+        assertThat(RollupGranularity.MONTH.sqlBucket("created_at")).isEqualTo("DATE_FORMAT(created_at, '%Y-%m-01')");
+    }
+}
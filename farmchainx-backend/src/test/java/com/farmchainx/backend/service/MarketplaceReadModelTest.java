@@ -0,0 +1,95 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.CropView;
+import com.farmchainx.backend.enums.CropState;
+import com.farmchainx.backend.enums.Role;
+import com.farmchainx.backend.event.CropChangedEvent;
+import com.farmchainx.backend.repository.CropRepository;
+import com.farmchainx.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MarketplaceReadModelTest {
+
+    private CropRepository cropRepository;
+    private MarketplaceReadModel model;
+
+    @BeforeEach
+    void setUp() {
+        cropRepository = mock(CropRepository.class);
+        when(cropRepository.findListedViews()).thenReturn(List.of(view(1L, 1)));
+        when(cropRepository.countGroupedByState()).thenReturn(List.<Object[]>of(
+                new Object[]{CropState.LISTED, 1L}, new Object[]{CropState.CREATED, 2L}));
+        model = new MarketplaceReadModel(cropRepository, mock(UserRepository.class));
+        model.rebuild();
+    }
+
+    @Test
+    void listingAndUnlistingUpdateListAndCounts() {
+        when(cropRepository.findListedViewById(2L)).thenReturn(Optional.of(view(2L, 2)));
+
+        model.onCropChanged(event(2L, CropState.CREATED, CropState.LISTED));
+        assertThat(ids(model.listed())).containsExactly(2L, 1L);
+        assertThat(model.current().getStats()).containsEntry("totalListedCrops", 2L).containsEntry("totalCreatedCrops", 1L);
+
+        model.onCropChanged(event(1L, CropState.LISTED, CropState.CREATED));
+        assertThat(ids(model.listed())).containsExactly(2L);
+        assertThat(model.current().getStats()).containsEntry("totalListedCrops", 1L).containsEntry("totalCreatedCrops", 2L);
+    }
+
+    @Test
+    void listedCropsAreCopiedOncePerVersion() {
+        MarketplaceReadModel.Snapshot first = model.listed();
+        assertThat(model.listed().getListedCrops()).isSameAs(first.getListedCrops());
+
+        model.onCropChanged(event(1L, CropState.LISTED, CropState.CREATED));
+        assertThat(model.current().getListedCrops()).isNull();
+        assertThat(model.listed().getVersion()).isGreaterThan(first.getVersion());
+    }
+
+    @Test
+    void slowLoadDoesNotOverrideALaterChange() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cropRepository.findListedViewById(2L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(view(2L, 2));
+        });
+
+        // Listed, and unlisted again while the listing's view is still loading
+        CompletableFuture<Void> listing = CompletableFuture.runAsync(
+                () -> model.onCropChanged(event(2L, CropState.CREATED, CropState.LISTED)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        model.onCropChanged(event(2L, CropState.LISTED, CropState.CREATED));
+        release.countDown();
+        listing.get(5, TimeUnit.SECONDS);
+
+        assertThat(ids(model.listed())).containsExactly(1L);
+    }
+
+    private static List<Long> ids(MarketplaceReadModel.Snapshot snapshot) {
+        return snapshot.getListedCrops().stream().map(CropView::getId).toList();
+    }
+
+    private static CropChangedEvent event(Long id, CropState from, CropState to) {
+        return new CropChangedEvent(id, "Wheat", "Punjab", from, to, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    private static CropView view(Long id, int day) {
+        LocalDateTime created = LocalDateTime.of(2024, 1, day, 8, 0);
+        return new CropView(id, "Wheat", 10.0, created, "Punjab", null, null,
+                "farmer@example.com", Role.FARMER, CropState.LISTED, created, created);
+    }
+}
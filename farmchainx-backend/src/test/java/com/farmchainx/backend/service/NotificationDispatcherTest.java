@@ -0,0 +1,67 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.event.NotificationRequestedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class NotificationDispatcherTest {
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> stored = Collections.synchronizedList(new ArrayList<>());
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void requestThatCannotBeStoredDoesNotDropTheRestOfItsBatch() throws InterruptedException {
+        // Fails any batch that contains the deleted user, like the user_id foreign key would
+        doAnswer(invocation -> {
+            List<NotificationRequestedEvent> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(r -> r.getUserEmail().equals("deleted@example.com"))) {
+                throw new IllegalStateException("foreign key violation");
+            }
+            batch.forEach(r -> stored.add(r.getUserEmail()));
+            return null;
+        }).when(notificationService).storeBatch(anyList());
+
+        dispatcher = new NotificationDispatcher(notificationService, 100, 100, 2, 0, meterRegistry);
+        // However the writer batches them, only the deleted user's request may be lost
+        List<String> emails = List.of("a@example.com", "b@example.com", "deleted@example.com",
+                "c@example.com", "d@example.com");
+        emails.forEach(email -> dispatcher.onNotificationRequested(request(email)));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stored.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        while (failed() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(stored).containsExactlyInAnyOrder("a@example.com", "b@example.com", "c@example.com", "d@example.com");
+        assertThat(failed()).isEqualTo(1.0);
+    }
+
+    private double failed() {
+        return meterRegistry.counter("notifications.dispatch.failed").count();
+    }
+
+    private static NotificationRequestedEvent request(String email) {
+        return new NotificationRequestedEvent(1L, email, "ORDER_UPDATE", "Order placed", "info", LocalDateTime.now());
+    }
+}
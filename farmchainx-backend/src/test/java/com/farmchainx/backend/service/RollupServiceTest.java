@@ -0,0 +1,89 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.dto.RollupPoint;
+import com.farmchainx.backend.enums.RollupGranularity;
+import com.farmchainx.backend.repository.AnalyticsRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RollupServiceTest {
+
+    private AnalyticsRollupRepository rollupRepository;
+    private RollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(AnalyticsRollupRepository.class);
+        // One order per bucket range read, so the total counts the reads
+        when(rollupRepository.sumBetween(any(), any(), any())).thenAnswer(invocation ->
+                new RollupPoint(invocation.getArgument(1), 0L, 0L, 1L, 0L, 0L, 10.0, 0L, 0L));
+        rollupService = new RollupService(rollupRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void totalsUseCoarsestBucketsInTheMiddle() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 30, 22, 30);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 2, 5, 0);
+
+        RollupPoint total = rollupService.totals(from, to);
+
+        InOrder reads = inOrder(rollupRepository);
+        reads.verify(rollupRepository).sumBetween(RollupGranularity.HOUR,
+                LocalDateTime.of(2024, 1, 30, 22, 0), LocalDateTime.of(2024, 1, 31, 0, 0));
+        reads.verify(rollupRepository).sumBetween(RollupGranularity.DAY,
+                LocalDateTime.of(2024, 1, 31, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0));
+        reads.verify(rollupRepository).sumBetween(RollupGranularity.MONTH,
+                LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0));
+        reads.verify(rollupRepository).sumBetween(RollupGranularity.DAY,
+                LocalDateTime.of(2024, 3, 1, 0, 0), LocalDateTime.of(2024, 3, 2, 0, 0));
+        reads.verify(rollupRepository).sumBetween(RollupGranularity.HOUR,
+                LocalDateTime.of(2024, 3, 2, 0, 0), LocalDateTime.of(2024, 3, 2, 5, 0));
+        verifyNoMoreInteractions(rollupRepository);
+
+        assertThat(total.getOrdersPlaced()).isEqualTo(5);
+        assertThat(total.getOrderValue()).isEqualTo(50.0);
+        assertThat(total.getBucketStart()).isEqualTo(LocalDateTime.of(2024, 1, 30, 22, 0));
+    }
+
+    @Test
+    void totalsIncludePartialTrailingHour() {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 5, 1, 2, 15);
+
+        rollupService.totals(from, to);
+
+        verify(rollupRepository).sumBetween(RollupGranularity.HOUR,
+                LocalDateTime.of(2024, 5, 1, 0, 0), LocalDateTime.of(2024, 5, 1, 2, 0));
+        verify(rollupRepository).sumBetween(RollupGranularity.HOUR,
+                LocalDateTime.of(2024, 5, 1, 2, 0), LocalDateTime.of(2024, 5, 1, 3, 0));
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void wholeMonthIsOneRead() {
+        RollupPoint total = rollupService.totals(LocalDateTime.of(2023, 12, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        verify(rollupRepository).sumBetween(RollupGranularity.MONTH,
+                LocalDateTime.of(2023, 12, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0));
+        verifyNoMoreInteractions(rollupRepository);
+        assertThat(total.getOrdersPlaced()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyWindowReadsNothing() {
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+        RollupPoint total = rollupService.totals(at, at);
+
+        verifyNoInteractions(rollupRepository);
+        assertThat(total.getOrdersPlaced()).isZero();
+    }
+}
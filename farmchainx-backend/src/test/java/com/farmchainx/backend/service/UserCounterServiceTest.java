@@ -0,0 +1,121 @@
+package com.farmchainx.backend.service;
+
+import com.farmchainx.backend.entity.User;
+import com.farmchainx.backend.entity.UserOrderCounter;
+import com.farmchainx.backend.enums.OrderState;
+import com.farmchainx.backend.event.OrderStateChangedEvent;
+import com.farmchainx.backend.repository.OrderRepository;
+import com.farmchainx.backend.repository.SellerCustomerRepository;
+import com.farmchainx.backend.repository.UserOrderCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserCounterServiceTest {
+
+    private static final Long BUYER_ID = 7L;
+    private static final Long SELLER_ID = 3L;
+
+    private UserOrderCounterRepository counterRepository;
+    private SellerCustomerRepository sellerCustomerRepository;
+    private UserCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        counterRepository = mock(UserOrderCounterRepository.class);
+        sellerCustomerRepository = mock(SellerCustomerRepository.class);
+        service = new UserCounterService(counterRepository, sellerCustomerRepository, mock(OrderRepository.class),
+                mock(PlatformTransactionManager.class), 500);
+    }
+
+    @Test
+    void firstOrderBetweenTwoUsersAddsACustomer() {
+        when(sellerCustomerRepository.insertIfAbsent(SELLER_ID, BUYER_ID)).thenReturn(1);
+
+        service.onOrderStateChanged(event(null, OrderState.PLACED, 25.0));
+
+        verify(counterRepository).increment(BUYER_ID, "BUYER_PLACED", 1, 25.0);
+        verify(counterRepository).increment(SELLER_ID, "SELLER_PLACED", 1, 25.0);
+        verify(counterRepository).increment(SELLER_ID, "CUSTOMERS", 1, 0);
+        verifyNoMoreInteractions(counterRepository);
+    }
+
+    @Test
+    void repeatOrderDoesNotAddACustomer() {
+        when(sellerCustomerRepository.insertIfAbsent(SELLER_ID, BUYER_ID)).thenReturn(0);
+
+        service.onOrderStateChanged(event(null, OrderState.PLACED, 25.0));
+
+        verify(counterRepository, never()).increment(anyLong(), eq("CUSTOMERS"), anyLong(), eq(0.0));
+    }
+
+    @Test
+    void transitionMovesOneOrderBetweenStates() {
+        service.onOrderStateChanged(event(OrderState.SHIPPED, OrderState.COMPLETED, 40.0));
+
+        verify(counterRepository).increment(BUYER_ID, "BUYER_SHIPPED", -1, -40.0);
+        verify(counterRepository).increment(SELLER_ID, "SELLER_SHIPPED", -1, -40.0);
+        verify(counterRepository).increment(BUYER_ID, "BUYER_COMPLETED", 1, 40.0);
+        verify(counterRepository).increment(SELLER_ID, "SELLER_COMPLETED", 1, 40.0);
+        verifyNoMoreInteractions(counterRepository);
+        verifyNoInteractions(sellerCustomerRepository);
+    }
+
+    @Test
+    void countersOfSplitsRowsBySide() {
+        User user = new User();
+        user.setId(SELLER_ID);
+        when(counterRepository.findByUserId(SELLER_ID)).thenReturn(List.of(
+                counter("BUYER_PLACED", 2, 30.0),
+                counter("SELLER_PLACED", 4, 100.0),
+                counter("SELLER_COMPLETED", 6, 240.0),
+                counter("SELLER_CANCELLED", 1, 10.0),
+                counter("CUSTOMERS", 3, 0)));
+
+        UserCounterService.UserCounters counters = service.countersOf(user);
+
+        assertThat(counters.getAsBuyer().count(OrderState.PLACED)).isEqualTo(2);
+        assertThat(counters.getAsBuyer().total()).isEqualTo(2);
+        assertThat(counters.getAsSeller().total()).isEqualTo(11);
+        assertThat(counters.getAsSeller().active()).isEqualTo(4);
+        assertThat(counters.getAsSeller().amount(OrderState.COMPLETED)).isEqualTo(240.0);
+        assertThat(counters.getCustomersServed()).isEqualTo(3);
+    }
+
+    @Test
+    void rebuildWalksUserIdRanges() {
+        when(counterRepository.maxUserId()).thenReturn(1_200L);
+        service.rebuildAll();
+
+        verify(counterRepository).deleteCounters(1, 500);
+        verify(counterRepository).deleteCounters(501, 1_000);
+        verify(counterRepository).deleteCounters(1_001, 1_500);
+        verify(sellerCustomerRepository).insertSellers(1_001, 1_500);
+        verify(counterRepository).insertCustomerCounters(1_001, 1_500);
+        verify(counterRepository, times(3)).insertBuyerCounters(anyLong(), anyLong());
+        verify(counterRepository, never()).increment(anyLong(), anyString(), anyLong(), eq(0.0));
+    }
+
+    private static OrderStateChangedEvent event(OrderState from, OrderState to, double amount) {
+        return new OrderStateChangedEvent(11L, BUYER_ID, SELLER_ID, from, to, amount, "Wheat", "Punjab", 5.0, 5.0,
+                LocalDateTime.of(2024, 6, 1, 12, 0));
+    }
+
+    private static UserOrderCounter counter(String key, long count, double amount) {
+        UserOrderCounter counter = new UserOrderCounter();
+        ReflectionTestUtils.setField(counter, "counterKey", key);
+        ReflectionTestUtils.setField(counter, "orderCount", count);
+        ReflectionTestUtils.setField(counter, "amount", amount);
+        return counter;
+    }
+}